@@ -0,0 +1,102 @@
+package com.gestiontareas.benchmarks;
+
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.gestion.AlmacenamientoFragmentado;
+import com.gestiontareas.componentes.gestion.AlmacenamientoPorDocumento;
+import com.gestiontareas.componentes.gestion.EstrategiaAlmacenamiento;
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.modelo.Tarea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xmldb.api.base.XMLDBException;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara las dos disposiciones de almacenamiento (un documento por tarea y
+ * documentos contenedores fragmentados) en alta, modificación, lectura por
+ * ID y recorrido completo, para varios tamaños de colección.
+ *
+ * Las altas hacen crecer la colección durante la medición; con las
+ * iteraciones por defecto el crecimiento es pequeño frente a los tamaños
+ * medidos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AlmacenamientoBenchmark {
+    
+    @Param({"1000", "10000", "100000"})
+    private int tamano;
+    
+    @Param({"documento", "fragmentado"})
+    private String almacenamiento;
+    
+    @Param({"16"})
+    private int fragmentos;
+    
+    private final Random aleatorio = new Random(42);
+    private ConectorBD conector;
+    private GestorTareas gestor;
+    private List<Tarea> tareas;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws XMLDBException {
+        conector = BaseDatosEmbebida.arrancar();
+        BaseDatosEmbebida.vaciar(conector);
+        
+        EstrategiaAlmacenamiento estrategia = "fragmentado".equals(almacenamiento) ?
+            new AlmacenamientoFragmentado(fragmentos) : new AlmacenamientoPorDocumento();
+        gestor = new GestorTareas(conector, estrategia);
+        tareas = BaseDatosEmbebida.sembrar(gestor, tamano, aleatorio);
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() throws XMLDBException {
+        BaseDatosEmbebida.vaciar(conector);
+        conector.desconectar();
+    }
+    
+    @Benchmark
+    public boolean insertar() {
+        // Sin ID, como desde la interfaz: se genera y no hace falta comprobar si existe
+        Tarea tarea = BaseDatosEmbebida.tareaAleatoria(aleatorio);
+        tarea.setId(null);
+        return gestor.crearTarea(tarea);
+    }
+    
+    @Benchmark
+    public boolean actualizar() {
+        Tarea tarea = tareas.get(aleatorio.nextInt(tareas.size()));
+        tarea.setEstado(BaseDatosEmbebida.otroEstado(tarea.getEstado()));
+        return gestor.actualizarTarea(tarea);
+    }
+    
+    @Benchmark
+    public Tarea buscarPorId() {
+        return gestor.buscarTareaPorId(tareas.get(aleatorio.nextInt(tareas.size())).getId());
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Tarea> recorrerTodas() {
+        return gestor.obtenerTodasLasTareas();
+    }
+}
@@ -0,0 +1,142 @@
+package com.gestiontareas.benchmarks;
+
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.bd.ConfiguracionBD;
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.modelo.Tarea;
+import org.xmldb.api.base.Collection;
+import org.xmldb.api.base.Resource;
+import org.xmldb.api.base.XMLDBException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Utilidades comunes de los benchmarks: arranque de una instancia embebida
+ * de eXist-db y generación de tareas de prueba.
+ *
+ * La instancia se configura con las mismas claves que la aplicación, pasadas
+ * como propiedades del sistema (al menos -Dbd.configuracion con el conf.xml
+ * de una instancia desechable, ya que la colección de tareas se vacía).
+ */
+public final class BaseDatosEmbebida {
+    
+    private static final String[] ESTADOS = {"pendiente", "en_proceso", "completada"};
+    private static final String[] PRIORIDADES = {"baja", "media", "alta"};
+    private static final int TAMANO_LOTE_SIEMBRA = 1000;
+    
+    private BaseDatosEmbebida() {
+    }
+    
+    /**
+     * Arranca la instancia embebida y abre la colección de tareas
+     * @return Conector ya conectado
+     * @throws XMLDBException Si no se puede arrancar la base de datos
+     */
+    public static ConectorBD arrancar() throws XMLDBException {
+        return conectar("embebido");
+    }
+    
+    /**
+     * Abre la colección de tareas en el modo indicado. -Dbd.uri solo se
+     * aplica al modo remoto; el embebido usa siempre su URI por defecto, de
+     * modo que una misma ejecución puede medir los dos.
+     * @param modo "embebido" o "remoto"
+     * @return Conector ya conectado
+     * @throws XMLDBException Si no se puede conectar con la base de datos
+     */
+    public static ConectorBD conectar(String modo) throws XMLDBException {
+        Properties propiedades = new Properties();
+        for (String clave : System.getProperties().stringPropertyNames()) {
+            if (clave.startsWith("bd.") && !"bd.uri".equals(clave)) {
+                propiedades.setProperty(clave, System.getProperty(clave));
+            }
+        }
+        propiedades.setProperty("bd.modo", modo);
+        if ("remoto".equals(modo) && System.getProperty("bd.uri") != null) {
+            propiedades.setProperty("bd.uri", System.getProperty("bd.uri"));
+        }
+        
+        ConectorBD conector = new ConectorBD(new ConfiguracionBD(propiedades));
+        if (!conector.conectar()) {
+            throw new IllegalStateException("No se pudo conectar con eXist-db en modo " + modo);
+        }
+        return conector;
+    }
+    
+    /**
+     * Elimina todos los documentos de la colección de tareas
+     * @param conector Conector abierto
+     * @throws XMLDBException Si hay error en la base de datos
+     */
+    public static void vaciar(ConectorBD conector) throws XMLDBException {
+        Collection col = conector.tomarColeccion();
+        try {
+            for (String nombre : col.listResources()) {
+                Resource recurso = col.getResource(nombre);
+                if (recurso != null) {
+                    col.removeResource(recurso);
+                }
+            }
+        } finally {
+            conector.devolverColeccion(col);
+        }
+    }
+    
+    /**
+     * Crea tareas aleatorias en la base de datos, por lotes
+     * @param gestor Gestor con el que se crean
+     * @param cantidad Número de tareas
+     * @param aleatorio Generador de valores
+     * @return Tareas creadas
+     */
+    public static List<Tarea> sembrar(GestorTareas gestor, int cantidad, Random aleatorio) {
+        List<Tarea> creadas = new ArrayList<>(cantidad);
+        List<Tarea> lote = new ArrayList<>(TAMANO_LOTE_SIEMBRA);
+        
+        for (int i = 0; i < cantidad; i++) {
+            Tarea tarea = tareaAleatoria(aleatorio);
+            creadas.add(tarea);
+            lote.add(tarea);
+            if (lote.size() == TAMANO_LOTE_SIEMBRA || i == cantidad - 1) {
+                gestor.crearTareas(lote);
+                lote.clear();
+            }
+        }
+        
+        return creadas;
+    }
+    
+    /**
+     * Genera una tarea con ID nuevo y valores aleatorios
+     * @param aleatorio Generador de valores
+     * @return Tarea de prueba
+     */
+    public static Tarea tareaAleatoria(Random aleatorio) {
+        int numero = aleatorio.nextInt(1_000_000);
+        return new Tarea(UUID.randomUUID().toString(),
+            "Tarea de prueba " + numero,
+            "Descripción de la tarea " + numero + " con algo de texto <y> caracteres & especiales",
+            ESTADOS[aleatorio.nextInt(ESTADOS.length)],
+            PRIORIDADES[aleatorio.nextInt(PRIORIDADES.length)],
+            aleatorio.nextBoolean() ? LocalDate.now().plusDays(aleatorio.nextInt(60) - 20) : null);
+    }
+    
+    /**
+     * Devuelve un estado distinto del indicado
+     * @param estado Estado actual
+     * @return Siguiente estado de la progresión, cíclicamente
+     */
+    public static String otroEstado(String estado) {
+        for (int i = 0; i < ESTADOS.length; i++) {
+            if (ESTADOS[i].equals(estado)) {
+                return ESTADOS[(i + 1) % ESTADOS.length];
+            }
+        }
+        return ESTADOS[0];
+    }
+}
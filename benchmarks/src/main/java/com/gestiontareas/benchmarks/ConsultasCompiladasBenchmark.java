@@ -0,0 +1,136 @@
+package com.gestiontareas.benchmarks;
+
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.gestion.CacheConsultas;
+import com.gestiontareas.componentes.gestion.FiltroTareas;
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xmldb.api.base.Collection;
+import org.xmldb.api.base.CompiledExpression;
+import org.xmldb.api.base.ResourceSet;
+import org.xmldb.api.base.XMLDBException;
+import org.xmldb.api.modules.XQueryService;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide una carga de filtros repetidos (recuentos por estado y prioridad con
+ * valores que van cambiando) con la consulta compilada una vez y reutilizada
+ * desde CacheConsultas, compilada de nuevo en cada ejecución con las mismas
+ * variables externas (Recompilada) y con los valores concatenados en el
+ * texto, como hacía la versión original (Anterior). gestorContar usa el
+ * camino real de GestorTareas.contarTareas.
+ *
+ * Con pocas tareas la compilación pesa más frente a la ejecución, por eso se
+ * mide también con 1.000. Al terminar se muestran las compilaciones, los
+ * aciertos y el tiempo de compilación ahorrado según las métricas del gestor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConsultasCompiladasBenchmark {
+    
+    private static final String[] ESTADOS = {"pendiente", "en_proceso", "completada"};
+    private static final String[] PRIORIDADES = {"baja", "media", "alta"};
+    
+    @Param({"1000", "100000"})
+    private int tamano;
+    
+    private final Random aleatorio = new Random(42);
+    private ConectorBD conector;
+    private GestorTareas gestor;
+    private Collection col;
+    private XQueryService servicio;
+    private CacheConsultas consultas;
+    private String tareas;
+    private String consulta;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws XMLDBException {
+        conector = BaseDatosEmbebida.arrancar();
+        BaseDatosEmbebida.vaciar(conector);
+        gestor = new GestorTareas(conector);
+        BaseDatosEmbebida.sembrar(gestor, tamano, aleatorio);
+        
+        col = conector.tomarColeccion();
+        servicio = (XQueryService) col.getService("XQueryService", "1.0");
+        consultas = new CacheConsultas(col);
+        tareas = gestor.getEstrategia().seleccionarTareas("collection('" + conector.getColeccionBase() + "')");
+        consulta =
+            "declare variable $estado external;\n" +
+            "declare variable $prioridad external;\n" +
+            "count(" + tareas + "[estado = $estado][prioridad = $prioridad])";
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() throws XMLDBException {
+        System.out.printf("%nGestorTareas: %,d compilaciones, %,d aciertos, %,d ms de compilación ahorrados%n",
+            gestor.getCompilacionesConsultas(), gestor.getAciertosConsultas(),
+            TimeUnit.NANOSECONDS.toMillis(gestor.getAhorroCompilacionNanos()));
+        
+        conector.devolverColeccion(col);
+        BaseDatosEmbebida.vaciar(conector);
+        conector.desconectar();
+    }
+    
+    @Benchmark
+    public String cacheada() throws XMLDBException {
+        return primero(consultas.ejecutar(consulta, variables()));
+    }
+    
+    @Benchmark
+    public String recompilada() throws XMLDBException {
+        CompiledExpression expresion = servicio.compile(consulta);
+        for (Map.Entry<String, String> variable : variables().entrySet()) {
+            servicio.declareVariable(variable.getKey(), variable.getValue());
+        }
+        return primero(servicio.execute(expresion));
+    }
+    
+    @Benchmark
+    public String anterior() throws XMLDBException {
+        return primero(servicio.query("count(" + tareas + "[estado = '" + estado() + "']" +
+            "[prioridad = '" + prioridad() + "'])"));
+    }
+    
+    @Benchmark
+    public int gestorContar() {
+        FiltroTareas filtro = new FiltroTareas();
+        filtro.setEstado(estado());
+        filtro.setPrioridad(prioridad());
+        return gestor.contarTareas(filtro);
+    }
+    
+    private Map<String, String> variables() {
+        return Map.of("estado", estado(), "prioridad", prioridad());
+    }
+    
+    private String estado() {
+        return ESTADOS[aleatorio.nextInt(ESTADOS.length)];
+    }
+    
+    private String prioridad() {
+        return PRIORIDADES[aleatorio.nextInt(PRIORIDADES.length)];
+    }
+    
+    private static String primero(ResourceSet resultado) throws XMLDBException {
+        return resultado.getResource(0).getContent().toString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.gestiontareas.benchmarks;
+
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.modelo.Tarea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xmldb.api.base.XMLDBException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el alta de tareas de una en una (crearTarea) con el alta por lotes
+ * (crearTareas) para varios tamaños de lote. Cada invocación crea las mismas
+ * 1.000 tareas nuevas, así que el resultado se da en tareas por segundo.
+ * La colección se vacía al terminar cada iteración para que no crezca.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CreacionLotesBenchmark {
+    
+    private static final int TAREAS_POR_INVOCACION = 1000;
+    
+    @Param({"10", "100", "1000"})
+    private int lote;
+    
+    private final Random aleatorio = new Random(42);
+    private ConectorBD conector;
+    private GestorTareas gestor;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws XMLDBException {
+        conector = BaseDatosEmbebida.arrancar();
+        BaseDatosEmbebida.vaciar(conector);
+        gestor = new GestorTareas(conector);
+        gestor.setTamanoLote(lote);
+    }
+    
+    @TearDown(Level.Iteration)
+    public void vaciar() throws XMLDBException {
+        BaseDatosEmbebida.vaciar(conector);
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        conector.desconectar();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(TAREAS_POR_INVOCACION)
+    public int crearIndividual() {
+        int creadas = 0;
+        for (Tarea tarea : tareasNuevas()) {
+            if (gestor.crearTarea(tarea)) {
+                creadas++;
+            }
+        }
+        return creadas;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(TAREAS_POR_INVOCACION)
+    public List<Boolean> crearPorLotes() {
+        return gestor.crearTareas(tareasNuevas());
+    }
+    
+    /**
+     * Tareas sin ID, como desde la interfaz: el gestor genera uno nuevo
+     */
+    private List<Tarea> tareasNuevas() {
+        List<Tarea> tareas = new ArrayList<>(TAREAS_POR_INVOCACION);
+        for (int i = 0; i < TAREAS_POR_INVOCACION; i++) {
+            Tarea tarea = BaseDatosEmbebida.tareaAleatoria(aleatorio);
+            tarea.setId(null);
+            tareas.add(tarea);
+        }
+        return tareas;
+    }
+}
@@ -0,0 +1,121 @@
+package com.gestiontareas.benchmarks;
+
+import com.gestiontareas.modelo.Tarea;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * Mide la memoria que ocupan las tareas cacheadas con la representación
+ * actual de Tarea y con la anterior (todo String y LocalDate, copiada abajo
+ * como TareaAnterior). No es un benchmark JMH: crea N tareas tal como las
+ * deja el lector SAX, es decir, con un String nuevo por cada campo leído, y
+ * compara el heap ocupado antes y después de retenerlas.
+ *
+ * Uso: java -cp target/benchmarks.jar com.gestiontareas.benchmarks.HuellaMemoriaTareas [tareas]
+ * (por defecto 1.000.000; conviene un heap holgado, por ejemplo -Xmx2g)
+ */
+public final class HuellaMemoriaTareas {
+    
+    private static final int TAREAS_POR_DEFECTO = 1_000_000;
+    private static final String[] ESTADOS = {"pendiente", "en_proceso", "completada"};
+    private static final String[] PRIORIDADES = {"baja", "media", "alta"};
+    
+    private HuellaMemoriaTareas() {
+    }
+    
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : TAREAS_POR_DEFECTO;
+        
+        // Título y descripción se comparten: ocupan lo mismo en ambas representaciones
+        String titulo = "Tarea de prueba";
+        String descripcion = "Descripción de la tarea de prueba";
+        
+        long anterior = medir("Tarea anterior", cantidad, semilla -> {
+            Random aleatorio = new Random(semilla);
+            TareaAnterior tarea = new TareaAnterior();
+            tarea.id = copia(UUID.randomUUID().toString());
+            tarea.titulo = titulo;
+            tarea.descripcion = descripcion;
+            tarea.estado = copia(ESTADOS[aleatorio.nextInt(ESTADOS.length)]);
+            tarea.prioridad = copia(PRIORIDADES[aleatorio.nextInt(PRIORIDADES.length)]);
+            tarea.fechaCreacion = LocalDate.parse(fecha(aleatorio));
+            tarea.fechaVencimiento = LocalDate.parse(fecha(aleatorio));
+            return tarea;
+        });
+        
+        long actual = medir("Tarea compacta", cantidad, semilla -> {
+            Random aleatorio = new Random(semilla);
+            Tarea tarea = new Tarea();
+            tarea.setId(copia(UUID.randomUUID().toString()));
+            tarea.setTitulo(titulo);
+            tarea.setDescripcion(descripcion);
+            tarea.setEstado(copia(ESTADOS[aleatorio.nextInt(ESTADOS.length)]));
+            tarea.setPrioridad(copia(PRIORIDADES[aleatorio.nextInt(PRIORIDADES.length)]));
+            tarea.setFechaCreacion(LocalDate.parse(fecha(aleatorio)));
+            tarea.setFechaVencimiento(LocalDate.parse(fecha(aleatorio)));
+            return tarea;
+        });
+        
+        System.out.printf("Diferencia: %,d bytes (%.1f %% menos)%n",
+            anterior - actual, 100.0 * (anterior - actual) / anterior);
+    }
+    
+    /**
+     * Retiene N objetos y devuelve el heap ocupado por ellos
+     */
+    private static long medir(String nombre, int cantidad, IntFunction<Object> fabrica) {
+        List<Object> retenidas = new ArrayList<>(cantidad);
+        long antes = heapUsado();
+        for (int i = 0; i < cantidad; i++) {
+            retenidas.add(fabrica.apply(i));
+        }
+        long despues = heapUsado();
+        long ocupado = despues - antes;
+        
+        System.out.printf("%s: %,d bytes para %,d tareas (%,d bytes por tarea, sin título ni descripción)%n",
+            nombre, ocupado, retenidas.size(), ocupado / cantidad);
+        return ocupado;
+    }
+    
+    private static long heapUsado() {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        long usado = Long.MAX_VALUE;
+        // Varias recolecciones seguidas hasta que el valor se estabiliza
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            usado = Math.min(usado, memoria.getHeapMemoryUsage().getUsed());
+        }
+        return usado;
+    }
+    
+    /**
+     * Copia de un texto, como el String nuevo que crea el lector SAX por campo
+     */
+    private static String copia(String texto) {
+        return new String(texto.toCharArray());
+    }
+    
+    private static String fecha(Random aleatorio) {
+        return LocalDate.of(2024, 1, 1).plusDays(aleatorio.nextInt(1000)).toString();
+    }
+    
+    /**
+     * Copia de los campos de la Tarea original
+     */
+    private static final class TareaAnterior {
+        String id;
+        String titulo;
+        String descripcion;
+        String estado;
+        String prioridad;
+        LocalDate fechaCreacion;
+        LocalDate fechaVencimiento;
+    }
+}
@@ -0,0 +1,97 @@
+package com.gestiontareas.benchmarks;
+
+import com.gestiontareas.componentes.gestion.FiltroTareas;
+import com.gestiontareas.componentes.gestion.ResumenTareas;
+import com.gestiontareas.componentes.indice.IndiceColumnarTareas;
+import com.gestiontareas.modelo.Tarea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide los filtros y recuentos del índice columnar sobre millones de tareas
+ * generadas en memoria (no necesita eXist-db). Como referencia se recorre la
+ * lista de objetos Tarea aplicando el mismo filtro.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndiceColumnarBenchmark {
+    
+    @Param({"1000000", "5000000"})
+    private int tamano;
+    
+    private List<Tarea> tareas;
+    private IndiceColumnarTareas indice;
+    private FiltroTareas estadoYPrioridad;
+    private FiltroTareas estadoPrioridadYFechas;
+    private LocalDate hoy;
+    
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random aleatorio = new Random(42);
+        tareas = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            tareas.add(BaseDatosEmbebida.tareaAleatoria(aleatorio));
+        }
+        indice = IndiceColumnarTareas.desde(tareas);
+        hoy = LocalDate.now();
+        
+        estadoYPrioridad = new FiltroTareas();
+        estadoYPrioridad.setEstado("pendiente");
+        estadoYPrioridad.setPrioridad("alta");
+        
+        estadoPrioridadYFechas = estadoYPrioridad.copia();
+        estadoPrioridadYFechas.setVencimientoDesde(hoy.minusDays(10));
+        estadoPrioridadYFechas.setVencimientoHasta(hoy.plusDays(20));
+    }
+    
+    @Benchmark
+    public int contarEstadoYPrioridad() {
+        return indice.contar(estadoYPrioridad);
+    }
+    
+    @Benchmark
+    public int contarConFechas() {
+        return indice.contar(estadoPrioridadYFechas);
+    }
+    
+    @Benchmark
+    public int filtrarConFechas() {
+        return indice.filtrar(estadoPrioridadYFechas).contar();
+    }
+    
+    @Benchmark
+    public ResumenTareas resumen() {
+        return indice.resumen(hoy);
+    }
+    
+    @Benchmark
+    public long contarConFechasEnLista() {
+        LocalDate desde = estadoPrioridadYFechas.getVencimientoDesde();
+        LocalDate hasta = estadoPrioridadYFechas.getVencimientoHasta();
+        return tareas.stream()
+            .filter(t -> "pendiente".equals(t.getEstado()) && "alta".equals(t.getPrioridad()))
+            .filter(t -> t.getFechaVencimiento() != null
+                && !t.getFechaVencimiento().isBefore(desde) && !t.getFechaVencimiento().isAfter(hasta))
+            .count();
+    }
+}
@@ -0,0 +1,124 @@
+package com.gestiontareas.benchmarks;
+
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.gestion.FiltroTareas;
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.modelo.Tarea;
+import org.exist.xmldb.IndexQueryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xmldb.api.base.Collection;
+import org.xmldb.api.base.ResourceSet;
+import org.xmldb.api.base.XMLDBException;
+import org.xmldb.api.modules.XQueryService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara las búsquedas con y sin los índices de rango que despliega
+ * ConectorBD (collection.xconf), con 10.000, 100.000 y 1.000.000 de tareas.
+ * Con indices=sin se sustituye la configuración por una vacía antes de
+ * sembrar la colección; la siguiente conexión vuelve a desplegar la buena,
+ * porque no lleva la marca de versión.
+ *
+ * Se miden recuentos, para que el tiempo no dependa de cuántas tareas se
+ * transfieren: por estado, por un día de vencimiento y por ID (esta última
+ * solo usa el índice con -Dbd.almacenamiento=fragmentado; con un documento
+ * por tarea se abre el documento por su nombre). La variante Anterior repite
+ * la consulta original por estado, sobre toda la base de datos (//tarea) en
+ * lugar de la colección de tareas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IndicesRangoBenchmark {
+    
+    private static final String CONFIGURACION_VACIA =
+        "<collection xmlns=\"http://exist-db.org/collection-config/1.0\"><index/></collection>";
+    
+    @Param({"10000", "100000", "1000000"})
+    private int tamano;
+    
+    @Param({"con", "sin"})
+    private String indices;
+    
+    private final Random aleatorio = new Random(42);
+    private ConectorBD conector;
+    private GestorTareas gestor;
+    private List<Tarea> tareas;
+    private Collection col;
+    private XQueryService servicio;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws XMLDBException {
+        conector = BaseDatosEmbebida.arrancar();
+        BaseDatosEmbebida.vaciar(conector);
+        
+        col = conector.tomarColeccion();
+        if ("sin".equals(indices)) {
+            IndexQueryService indicesColeccion = (IndexQueryService) col.getService("IndexQueryService", "1.0");
+            indicesColeccion.configureCollection(CONFIGURACION_VACIA);
+            indicesColeccion.reindexCollection();
+        }
+        servicio = (XQueryService) col.getService("XQueryService", "1.0");
+        
+        gestor = new GestorTareas(conector);
+        tareas = BaseDatosEmbebida.sembrar(gestor, tamano, aleatorio);
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() throws XMLDBException {
+        conector.devolverColeccion(col);
+        BaseDatosEmbebida.vaciar(conector);
+        conector.desconectar();
+    }
+    
+    @Benchmark
+    public int contarPorEstado() {
+        FiltroTareas filtro = new FiltroTareas();
+        filtro.setEstado(tareaAleatoria().getEstado());
+        return gestor.contarTareas(filtro);
+    }
+    
+    @Benchmark
+    public int contarPorEstadoAnterior() throws XMLDBException {
+        ResourceSet resultado = servicio.query(
+            "count(//tarea[estado = '" + tareaAleatoria().getEstado() + "'])");
+        return Integer.parseInt(resultado.getResource(0).getContent().toString());
+    }
+    
+    @Benchmark
+    public int contarPorVencimiento() {
+        LocalDate dia = LocalDate.now().plusDays(aleatorio.nextInt(60) - 20);
+        FiltroTareas filtro = new FiltroTareas();
+        filtro.setVencimientoDesde(dia);
+        filtro.setVencimientoHasta(dia);
+        return gestor.contarTareas(filtro);
+    }
+    
+    @Benchmark
+    public Tarea buscarPorId() {
+        return gestor.buscarTareaPorId(tareaAleatoria().getId());
+    }
+    
+    private Tarea tareaAleatoria() {
+        return tareas.get(aleatorio.nextInt(tareas.size()));
+    }
+}
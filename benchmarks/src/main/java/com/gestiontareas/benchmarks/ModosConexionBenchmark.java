@@ -0,0 +1,99 @@
+package com.gestiontareas.benchmarks;
+
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.modelo.Tarea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xmldb.api.base.XMLDBException;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la latencia de las operaciones CRUD con eXist-db embebido en el
+ * proceso y con un servidor remoto a través de XML-RPC, con la misma
+ * colección de 10.000 tareas.
+ *
+ * El modo embebido usa -Dbd.configuracion como los demás benchmarks; el
+ * remoto, -Dbd.uri (por defecto el servidor local en el puerto 8080),
+ * -Dbd.usuario y -Dbd.password. Los dos vacían la colección de tareas, así
+ * que ambos deben ser instancias desechables. Para medir solo uno:
+ * -p modo=embebido.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ModosConexionBenchmark {
+    
+    @Param({"embebido", "remoto"})
+    private String modo;
+    
+    @Param({"10000"})
+    private int tamano;
+    
+    private final Random aleatorio = new Random(42);
+    private ConectorBD conector;
+    private GestorTareas gestor;
+    private List<Tarea> tareas;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws XMLDBException {
+        conector = BaseDatosEmbebida.conectar(modo);
+        BaseDatosEmbebida.vaciar(conector);
+        gestor = new GestorTareas(conector);
+        tareas = BaseDatosEmbebida.sembrar(gestor, tamano, aleatorio);
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() throws XMLDBException {
+        BaseDatosEmbebida.vaciar(conector);
+        conector.desconectar();
+    }
+    
+    /**
+     * Alta y baja de una tarea nueva, para que la colección no crezca
+     */
+    @Benchmark
+    public boolean crearYEliminar() {
+        Tarea tarea = BaseDatosEmbebida.tareaAleatoria(aleatorio);
+        tarea.setId(null);
+        return gestor.crearTarea(tarea) && gestor.eliminarTarea(tarea.getId());
+    }
+    
+    @Benchmark
+    public Tarea buscarPorId() {
+        return gestor.buscarTareaPorId(tareaAleatoria().getId());
+    }
+    
+    @Benchmark
+    public boolean actualizar() {
+        Tarea tarea = tareaAleatoria();
+        tarea.setEstado(BaseDatosEmbebida.otroEstado(tarea.getEstado()));
+        return gestor.actualizarTarea(tarea);
+    }
+    
+    @Benchmark
+    public List<Tarea> obtenerPagina() {
+        return gestor.obtenerListadoTareas(aleatorio.nextInt(Math.max(1, tareas.size() - 50)), 50);
+    }
+    
+    private Tarea tareaAleatoria() {
+        return tareas.get(aleatorio.nextInt(tareas.size()));
+    }
+}
@@ -0,0 +1,211 @@
+package com.gestiontareas.benchmarks;
+
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.modelo.Tarea;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de concurrencia del pool de colecciones de ConectorBD: varios hilos
+ * crean, leen, modifican y eliminan tareas a la vez sobre una instancia
+ * embebida (la colección de tareas se vacía, como en los benchmarks). No es
+ * un benchmark JMH ni usa JUnit: termina con código 1 si encuentra algún
+ * fallo.
+ *
+ * Cada hilo trabaja con sus propias tareas y comprueba tras cada operación
+ * que la base de datos devuelve lo que acaba de escribir; además todos los
+ * hilos modifican una tarea compartida. Al final se compara la colección
+ * con las tareas que deberían quedar y se revisa que el pool no haya
+ * superado su tamaño ni se haya quedado con colecciones prestadas.
+ *
+ * Uso: java -Dbd.configuracion=/ruta/a/conf.xml -cp target/benchmarks.jar
+ *      com.gestiontareas.benchmarks.PruebaConcurrenciaCRUD [hilos] [operaciones por hilo]
+ * (por defecto 16 hilos y 200 operaciones; -Dbd.pool y -Dbd.almacenamiento
+ * se aplican como en la aplicación)
+ */
+public final class PruebaConcurrenciaCRUD {
+    
+    private static final int HILOS_POR_DEFECTO = 16;
+    private static final int OPERACIONES_POR_DEFECTO = 200;
+    private static final int FALLOS_MOSTRADOS = 20;
+    
+    private final GestorTareas gestor;
+    private final Set<String> esperadas = ConcurrentHashMap.newKeySet();
+    private final List<String> fallos = new ArrayList<>();
+    private final AtomicLong operaciones = new AtomicLong();
+    private Tarea compartida;
+    
+    private PruebaConcurrenciaCRUD(GestorTareas gestor) {
+        this.gestor = gestor;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : HILOS_POR_DEFECTO;
+        int operacionesPorHilo = args.length > 1 ? Integer.parseInt(args[1]) : OPERACIONES_POR_DEFECTO;
+        
+        ConectorBD conector = BaseDatosEmbebida.arrancar();
+        boolean correcta;
+        try {
+            BaseDatosEmbebida.vaciar(conector);
+            PruebaConcurrenciaCRUD prueba = new PruebaConcurrenciaCRUD(new GestorTareas(conector));
+            correcta = prueba.ejecutar(conector, hilos, operacionesPorHilo);
+            BaseDatosEmbebida.vaciar(conector);
+        } finally {
+            conector.desconectar();
+        }
+        
+        System.exit(correcta ? 0 : 1);
+    }
+    
+    /**
+     * Lanza los hilos, espera a que terminen y comprueba el estado final
+     * @return true si no hubo ningún fallo
+     */
+    private boolean ejecutar(ConectorBD conector, int hilos, int operacionesPorHilo) throws Exception {
+        compartida = BaseDatosEmbebida.tareaAleatoria(new Random(0));
+        comprobar(gestor.crearTarea(compartida), "no se pudo crear la tarea compartida");
+        esperadas.add(compartida.getId());
+        
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> trabajos = new ArrayList<>(hilos);
+        long inicio = System.nanoTime();
+        
+        for (int i = 0; i < hilos; i++) {
+            Random aleatorio = new Random(i + 1);
+            trabajos.add(ejecutor.submit(() -> {
+                salida.await();
+                for (int j = 0; j < operacionesPorHilo; j++) {
+                    ciclo(aleatorio);
+                }
+                return null;
+            }));
+        }
+        
+        // Todos los hilos empiezan a la vez para forzar la espera en el pool
+        salida.countDown();
+        for (Future<?> trabajo : trabajos) {
+            try {
+                trabajo.get();
+            } catch (Exception e) {
+                fallo("excepción en un hilo: " + e.getCause());
+            }
+        }
+        ejecutor.shutdown();
+        ejecutor.awaitTermination(1, TimeUnit.MINUTES);
+        long milisegundos = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        
+        comprobarColeccion();
+        comprobarPool(conector);
+        
+        System.out.printf("%,d operaciones en %d hilos en %,d ms (%,.0f op/s)%n",
+            operaciones.get(), hilos, milisegundos, operaciones.get() * 1000.0 / Math.max(milisegundos, 1));
+        System.out.printf("Pool: tamaño %d, abiertas %d, libres %d, préstamos %,d, esperas %,d, " +
+            "invalidaciones %d, reconexiones %d%n",
+            conector.getTamanoPool(), conector.getColeccionesAbiertas(), conector.getColeccionesLibres(),
+            conector.getPrestamos(), conector.getEsperas(), conector.getInvalidaciones(),
+            conector.getReconexiones());
+        
+        synchronized (fallos) {
+            if (fallos.isEmpty()) {
+                System.out.println("Prueba de concurrencia correcta");
+                return true;
+            }
+            System.err.println("Prueba de concurrencia con " + fallos.size() + " fallos:");
+            fallos.stream().limit(FALLOS_MOSTRADOS).forEach(f -> System.err.println("  " + f));
+            return false;
+        }
+    }
+    
+    /**
+     * Crea una tarea, la lee, la modifica, vuelve a leerla y la elimina en la
+     * mitad de los casos; en medio modifica la tarea compartida
+     */
+    private void ciclo(Random aleatorio) {
+        Tarea tarea = BaseDatosEmbebida.tareaAleatoria(aleatorio);
+        tarea.setId(null);
+        if (!comprobar(gestor.crearTarea(tarea), "crearTarea devolvió false")) {
+            return;
+        }
+        esperadas.add(tarea.getId());
+        
+        Tarea leida = gestor.buscarTareaPorId(tarea.getId());
+        comprobar(leida != null && tarea.getTitulo().equals(leida.getTitulo()),
+            "la tarea " + tarea.getId() + " no se lee tal como se creó");
+        
+        tarea.setEstado(BaseDatosEmbebida.otroEstado(tarea.getEstado()));
+        comprobar(gestor.actualizarTarea(tarea), "actualizarTarea devolvió false para " + tarea.getId());
+        leida = gestor.buscarTareaPorId(tarea.getId());
+        comprobar(leida != null && tarea.getEstado().equals(leida.getEstado()),
+            "la tarea " + tarea.getId() + " no refleja la modificación");
+        
+        Tarea otra = copia(compartida);
+        otra.setEstado(BaseDatosEmbebida.otroEstado(otra.getEstado()));
+        comprobar(gestor.actualizarTarea(otra), "actualizarTarea devolvió false para la tarea compartida");
+        
+        operaciones.addAndGet(5);
+        
+        if (aleatorio.nextBoolean()) {
+            comprobar(gestor.eliminarTarea(tarea.getId()), "eliminarTarea devolvió false para " + tarea.getId());
+            esperadas.remove(tarea.getId());
+            comprobar(gestor.buscarTareaPorId(tarea.getId()) == null,
+                "la tarea " + tarea.getId() + " sigue existiendo tras eliminarla");
+            operaciones.addAndGet(2);
+        }
+    }
+    
+    /**
+     * Comprueba que en la colección quedan exactamente las tareas esperadas
+     */
+    private void comprobarColeccion() {
+        Set<String> guardadas = new HashSet<>(gestor.obtenerIdsTareas());
+        comprobar(guardadas.equals(esperadas), "la colección tiene " + guardadas.size() +
+            " tareas y se esperaban " + esperadas.size());
+        comprobar(gestor.contarTareas() == esperadas.size(), "contarTareas no coincide con las tareas esperadas");
+        
+        Tarea leida = gestor.buscarTareaPorId(compartida.getId());
+        comprobar(leida != null && compartida.getTitulo().equals(leida.getTitulo()),
+            "la tarea compartida se ha perdido o dañado");
+    }
+    
+    /**
+     * Comprueba que el pool no superó su tamaño y que se devolvieron todas
+     * las colecciones prestadas
+     */
+    private void comprobarPool(ConectorBD conector) {
+        comprobar(conector.getColeccionesAbiertas() <= conector.getTamanoPool(),
+            "el pool tiene más colecciones abiertas que su tamaño");
+        comprobar(conector.getColeccionesLibres() == conector.getColeccionesAbiertas(),
+            "quedan colecciones prestadas sin devolver");
+    }
+    
+    private static Tarea copia(Tarea tarea) {
+        return new Tarea(tarea.getId(), tarea.getTitulo(), tarea.getDescripcion(),
+            tarea.getEstado(), tarea.getPrioridad(), tarea.getFechaVencimiento());
+    }
+    
+    private boolean comprobar(boolean condicion, String mensaje) {
+        if (!condicion) {
+            fallo(mensaje);
+        }
+        return condicion;
+    }
+    
+    private void fallo(String mensaje) {
+        synchronized (fallos) {
+            fallos.add(mensaje);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.gestiontareas.componentes.gestion;
+
+import com.gestiontareas.benchmarks.BaseDatosEmbebida;
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.modelo.Tarea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xmldb.api.base.Collection;
+import org.xmldb.api.base.Resource;
+import org.xmldb.api.base.XMLDBException;
+import org.xmldb.api.modules.XMLResource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la modificación de una tarea con XQuery Update en el propio
+ * documento (actualizarTarea) con la forma anterior: leer el recurso,
+ * eliminarlo y guardarlo de nuevo completo (sufijo Anterior). Se cambia solo
+ * el estado, como al avanzar una tarea desde la interfaz.
+ *
+ * Las dos variantes se miden con el collection.xconf que despliega
+ * ConectorBD, así que incluyen el mantenimiento de los índices: al eliminar
+ * y volver a guardar, eXist-db borra y rehace todas las entradas del
+ * documento; al modificarlo en su sitio, solo las del elemento cambiado.
+ * La variante "consulta" añade tras cada modificación el recuento por
+ * estado, que usa el índice recién actualizado.
+ *
+ * Usa la disposición de un documento por tarea, la única en la que existía
+ * la forma anterior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ActualizacionBenchmark {
+    
+    @Param({"1000", "100000"})
+    private int tamano;
+    
+    private final Random aleatorio = new Random(42);
+    private ConectorBD conector;
+    private GestorTareas gestor;
+    private List<Tarea> tareas;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws XMLDBException {
+        conector = BaseDatosEmbebida.arrancar();
+        BaseDatosEmbebida.vaciar(conector);
+        gestor = new GestorTareas(conector, new AlmacenamientoPorDocumento());
+        tareas = BaseDatosEmbebida.sembrar(gestor, tamano, aleatorio);
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() throws XMLDBException {
+        BaseDatosEmbebida.vaciar(conector);
+        conector.desconectar();
+    }
+    
+    @Benchmark
+    public boolean actualizar() {
+        return gestor.actualizarTarea(siguiente());
+    }
+    
+    @Benchmark
+    public boolean actualizarAnterior() throws XMLDBException {
+        return actualizarAnterior(siguiente());
+    }
+    
+    @Benchmark
+    public int actualizarConsulta() {
+        Tarea tarea = siguiente();
+        gestor.actualizarTarea(tarea);
+        return contarPorEstado(tarea.getEstado());
+    }
+    
+    @Benchmark
+    public int actualizarAnteriorConsulta() throws XMLDBException {
+        Tarea tarea = siguiente();
+        actualizarAnterior(tarea);
+        return contarPorEstado(tarea.getEstado());
+    }
+    
+    private int contarPorEstado(String estado) {
+        FiltroTareas filtro = new FiltroTareas();
+        filtro.setEstado(estado);
+        return gestor.contarTareas(filtro);
+    }
+    
+    /**
+     * Elige una tarea al azar y le cambia el estado
+     */
+    private Tarea siguiente() {
+        Tarea tarea = tareas.get(aleatorio.nextInt(tareas.size()));
+        tarea.setEstado(BaseDatosEmbebida.otroEstado(tarea.getEstado()));
+        return tarea;
+    }
+    
+    /**
+     * Copia de la modificación original de GestorTareas: tres llamadas al
+     * servidor y un intervalo en el que la tarea no existe
+     */
+    private boolean actualizarAnterior(Tarea tarea) throws XMLDBException {
+        Collection col = conector.tomarColeccion();
+        try {
+            Resource recursoAnterior = col.getResource(tarea.getId() + ".xml");
+            if (recursoAnterior != null) {
+                col.removeResource(recursoAnterior);
+            }
+            String xml = gestor.tareaToXML(tarea);
+            XMLResource recurso = (XMLResource) col.createResource(tarea.getId() + ".xml", "XMLResource");
+            recurso.setContent(xml);
+            col.storeResource(recurso);
+            return true;
+        } finally {
+            conector.devolverColeccion(col);
+        }
+    }
+}
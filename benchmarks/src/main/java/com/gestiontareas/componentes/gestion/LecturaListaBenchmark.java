@@ -0,0 +1,177 @@
+package com.gestiontareas.componentes.gestion;
+
+import com.gestiontareas.benchmarks.BaseDatosEmbebida;
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.modelo.Tarea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+import org.xmldb.api.base.Collection;
+import org.xmldb.api.base.ResourceIterator;
+import org.xmldb.api.base.ResourceSet;
+import org.xmldb.api.base.XMLDBException;
+import org.xmldb.api.modules.XMLResource;
+import org.xmldb.api.modules.XQueryService;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la lectura de listas completas de tareas (100.000 por defecto) con
+ * el lector SAX y con la lectura anterior, que pedía el texto de cada
+ * recurso y buscaba cada etiqueta con indexOf (sufijo Anterior).
+ *
+ * leerSAX y leerAnterior trabajan sobre los documentos ya en memoria, así
+ * que solo miden el análisis. recorrerSAX y recorrerAnterior leen el
+ * resultado de una consulta sobre una instancia embebida: el primero entrega
+ * cada recurso al lector con getContentAsSAX, sin construir su texto, y el
+ * segundo llama a getContent. Con -prof gc JMH añade la memoria reservada
+ * por lista leída (gc.alloc.rate.norm).
+ *
+ * Está en el paquete de GestorTareas para poder usar tareaToXML, que no es
+ * público.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class LecturaListaBenchmark {
+    
+    @Param({"100000"})
+    private int tareas;
+    
+    private List<String> documentos;
+    private SAXParser parser;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        // La conversión no usa la conexión
+        GestorTareas gestor = new GestorTareas(null, new AlmacenamientoPorDocumento());
+        Random aleatorio = new Random(42);
+        
+        documentos = new ArrayList<>(tareas);
+        for (int i = 0; i < tareas; i++) {
+            documentos.add(gestor.tareaToXML(BaseDatosEmbebida.tareaAleatoria(aleatorio)));
+        }
+        parser = SAXParserFactory.newInstance().newSAXParser();
+    }
+    
+    @Benchmark
+    public List<Tarea> leerSAX() throws Exception {
+        List<Tarea> leidas = new ArrayList<>();
+        LectorTareasSAX lector = new LectorTareasSAX(leidas::add);
+        for (String xml : documentos) {
+            parser.reset();
+            parser.parse(new InputSource(new StringReader(xml)), lector);
+        }
+        return leidas;
+    }
+    
+    @Benchmark
+    public List<Tarea> leerAnterior() {
+        List<Tarea> leidas = new ArrayList<>();
+        for (String xml : documentos) {
+            leidas.add(xmlToTareaAnterior(xml));
+        }
+        return leidas;
+    }
+    
+    @Benchmark
+    public List<Tarea> recorrerSAX(ColeccionEmbebida coleccion) throws XMLDBException {
+        List<Tarea> leidas = new ArrayList<>();
+        LectorTareasSAX lector = new LectorTareasSAX(leidas::add);
+        ResourceIterator iterador = coleccion.consultar().getIterator();
+        while (iterador.hasMoreResources()) {
+            ((XMLResource) iterador.nextResource()).getContentAsSAX(lector);
+        }
+        return leidas;
+    }
+    
+    @Benchmark
+    public List<Tarea> recorrerAnterior(ColeccionEmbebida coleccion) throws XMLDBException {
+        List<Tarea> leidas = new ArrayList<>();
+        ResourceIterator iterador = coleccion.consultar().getIterator();
+        while (iterador.hasMoreResources()) {
+            leidas.add(xmlToTareaAnterior(iterador.nextResource().getContent().toString()));
+        }
+        return leidas;
+    }
+    
+    /**
+     * Copia de la lectura original de GestorTareas: siete búsquedas de
+     * etiquetas sobre el texto del documento, sin decodificar entidades
+     */
+    private static Tarea xmlToTareaAnterior(String xml) {
+        Tarea tarea = new Tarea();
+        tarea.setId(SerializacionBenchmark.extraerValor(xml, "id"));
+        tarea.setTitulo(SerializacionBenchmark.extraerValor(xml, "titulo"));
+        tarea.setDescripcion(SerializacionBenchmark.extraerValor(xml, "descripcion"));
+        tarea.setEstado(SerializacionBenchmark.extraerValor(xml, "estado"));
+        tarea.setPrioridad(SerializacionBenchmark.extraerValor(xml, "prioridad"));
+        
+        String fechaCreacion = SerializacionBenchmark.extraerValor(xml, "fechaCreacion");
+        if (!fechaCreacion.isEmpty()) {
+            tarea.setFechaCreacion(LocalDate.parse(fechaCreacion));
+        }
+        String fechaVencimiento = SerializacionBenchmark.extraerValor(xml, "fechaVencimiento");
+        if (!fechaVencimiento.isEmpty()) {
+            tarea.setFechaVencimiento(LocalDate.parse(fechaVencimiento));
+        }
+        return tarea;
+    }
+    
+    /**
+     * Instancia embebida con tantas tareas como se leen en memoria. Solo
+     * se arranca la base de datos si se ejecuta algún recorrer.
+     */
+    @State(Scope.Benchmark)
+    public static class ColeccionEmbebida {
+        
+        private ConectorBD conector;
+        private Collection col;
+        private XQueryService servicio;
+        private String consulta;
+        
+        @Setup(Level.Trial)
+        public void preparar(LecturaListaBenchmark benchmark) throws XMLDBException {
+            conector = BaseDatosEmbebida.arrancar();
+            BaseDatosEmbebida.vaciar(conector);
+            BaseDatosEmbebida.sembrar(new GestorTareas(conector, new AlmacenamientoPorDocumento()),
+                benchmark.tareas, new Random(42));
+            
+            col = conector.tomarColeccion();
+            servicio = (XQueryService) col.getService("XQueryService", "1.0");
+            consulta = "collection('" + conector.getColeccionBase() + "')/tarea";
+        }
+        
+        ResourceSet consultar() throws XMLDBException {
+            return servicio.query(consulta);
+        }
+        
+        @TearDown(Level.Trial)
+        public void cerrar() throws XMLDBException {
+            conector.devolverColeccion(col);
+            BaseDatosEmbebida.vaciar(conector);
+            conector.desconectar();
+        }
+    }
+}
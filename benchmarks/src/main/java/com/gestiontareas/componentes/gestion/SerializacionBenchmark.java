@@ -0,0 +1,255 @@
+package com.gestiontareas.componentes.gestion;
+
+import com.gestiontareas.benchmarks.BaseDatosEmbebida;
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.modelo.Tarea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xml.sax.InputSource;
+import org.xmldb.api.base.Collection;
+import org.xmldb.api.base.XMLDBException;
+import org.xmldb.api.modules.XMLResource;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide la conversión entre Tarea y XML: serialización (tareaToXML y lotes),
+ * escapado (escaparXML) y lectura (xmlToTarea sobre un recurso real de
+ * eXist-db y el lector SAX sobre el texto). Como referencia se incluyen las
+ * versiones anteriores: la lectura por búsqueda de etiquetas (extraerValor)
+ * y la serialización con un StringBuilder nuevo por tarea y cinco replace
+ * encadenados para escapar (sufijo Anterior). Con -prof gc se obtiene la
+ * memoria reservada por operación de cada variante.
+ *
+ * escribirLoteSalida escribe el lote en un Writer reutilizado, como el
+ * exportador; su referencia Anterior construye antes el texto de cada tarea.
+ *
+ * Está en el paquete de GestorTareas para poder llamar a los métodos de
+ * conversión, que no son públicos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+    
+    private static final String[] CAMPOS =
+        {"id", "titulo", "descripcion", "estado", "prioridad", "fechaCreacion", "fechaVencimiento"};
+    private static final int TAREAS_LOTE = 100;
+    
+    /** Texto sin caracteres especiales o con ellos (el escapado tiene que copiar) */
+    @Param({"normal", "especiales"})
+    private String texto;
+    
+    private GestorTareas gestor;
+    private Tarea tarea;
+    private String xml;
+    private SAXParser parser;
+    private List<Tarea> lote;
+    private StringBuilder bufferLote;
+    private Writer salida;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        // La conversión no usa la conexión
+        gestor = new GestorTareas(null, new AlmacenamientoPorDocumento());
+        
+        String descripcion = "normal".equals(texto) ?
+            "Revisar el informe trimestral y enviar las correcciones al equipo de calidad" :
+            "Revisar <informe> \"trimestral\" & enviar las 'correcciones' al equipo de I+D";
+        tarea = new Tarea("3f2b8c1e-6a4d-4e2f-9b7a-1c5d8e0f2a3b", "Preparar la reunión & el acta",
+            descripcion, "en_proceso", "alta", LocalDate.of(2025, 6, 30));
+        xml = gestor.tareaToXML(tarea);
+        parser = SAXParserFactory.newInstance().newSAXParser();
+        
+        lote = new ArrayList<>(TAREAS_LOTE);
+        for (int i = 0; i < TAREAS_LOTE; i++) {
+            lote.add(new Tarea(tarea.getId(), tarea.getTitulo() + " " + i, descripcion,
+                tarea.getEstado(), tarea.getPrioridad(), tarea.getFechaVencimiento()));
+        }
+        bufferLote = new StringBuilder(TAREAS_LOTE * 512);
+        salida = new BufferedWriter(Writer.nullWriter());
+    }
+    
+    @Benchmark
+    public String tareaToXML() {
+        return gestor.tareaToXML(tarea);
+    }
+    
+    @Benchmark
+    public String tareaToXMLAnterior() {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        escribirTareaAnterior(xml, tarea);
+        return xml.toString();
+    }
+    
+    @Benchmark
+    public int escribirLote() throws IOException {
+        bufferLote.setLength(0);
+        EscritorXMLTareas.escribirTareas(bufferLote, lote);
+        return bufferLote.length();
+    }
+    
+    @Benchmark
+    public int escribirLoteAnterior() {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<tareas>");
+        for (Tarea t : lote) {
+            escribirTareaAnterior(xml, t);
+        }
+        xml.append("</tareas>");
+        return xml.length();
+    }
+    
+    @Benchmark
+    public void escribirLoteSalida() throws IOException {
+        for (Tarea t : lote) {
+            EscritorXMLTareas.escribirTarea(salida, t);
+        }
+        salida.flush();
+    }
+    
+    @Benchmark
+    public void escribirLoteSalidaAnterior() throws IOException {
+        for (Tarea t : lote) {
+            StringBuilder xml = new StringBuilder();
+            escribirTareaAnterior(xml, t);
+            salida.write(xml.toString());
+        }
+        salida.flush();
+    }
+    
+    @Benchmark
+    public String escaparXML() {
+        return gestor.escaparXML(tarea.getDescripcion());
+    }
+    
+    @Benchmark
+    public String escaparXMLAnterior() {
+        return escaparXMLAnterior(tarea.getDescripcion());
+    }
+    
+    @Benchmark
+    public Tarea leerSAX() throws Exception {
+        Tarea[] leida = new Tarea[1];
+        parser.reset();
+        parser.parse(new InputSource(new StringReader(xml)), new LectorTareasSAX(t -> leida[0] = t));
+        return leida[0];
+    }
+    
+    @Benchmark
+    public void extraerValor(Blackhole agujero) {
+        for (String campo : CAMPOS) {
+            agujero.consume(extraerValor(xml, campo));
+        }
+    }
+    
+    @Benchmark
+    public Tarea xmlToTarea(RecursoEmbebido recurso) throws XMLDBException {
+        return gestor.xmlToTarea(recurso.recurso);
+    }
+    
+    /**
+     * Copia de la serialización original de GestorTareas
+     */
+    private static void escribirTareaAnterior(StringBuilder xml, Tarea tarea) {
+        xml.append("<tarea>\n");
+        xml.append("  <id>").append(tarea.getId()).append("</id>\n");
+        xml.append("  <titulo>").append(escaparXMLAnterior(tarea.getTitulo())).append("</titulo>\n");
+        xml.append("  <descripcion>").append(escaparXMLAnterior(tarea.getDescripcion())).append("</descripcion>\n");
+        xml.append("  <estado>").append(tarea.getEstado()).append("</estado>\n");
+        xml.append("  <prioridad>").append(tarea.getPrioridad()).append("</prioridad>\n");
+        xml.append("  <fechaCreacion>").append(tarea.getFechaCreacion()).append("</fechaCreacion>\n");
+        if (tarea.getFechaVencimiento() != null) {
+            xml.append("  <fechaVencimiento>").append(tarea.getFechaVencimiento()).append("</fechaVencimiento>\n");
+        }
+        xml.append("</tarea>");
+    }
+    
+    /**
+     * Copia del escapado original de GestorTareas
+     */
+    private static String escaparXMLAnterior(String texto) {
+        if (texto == null) return "";
+        return texto.replace("&", "&amp;")
+                   .replace("<", "&lt;")
+                   .replace(">", "&gt;")
+                   .replace("\"", "&quot;")
+                   .replace("'", "&apos;");
+    }
+    
+    /**
+     * Copia de la lectura original de GestorTareas, que buscaba cada etiqueta
+     * en el texto del documento
+     */
+    static String extraerValor(String xml, String tag) {
+        String inicio = "<" + tag + ">";
+        String fin = "</" + tag + ">";
+        
+        int posInicio = xml.indexOf(inicio);
+        int posFin = xml.indexOf(fin);
+        
+        if (posInicio != -1 && posFin != -1) {
+            return xml.substring(posInicio + inicio.length(), posFin).trim();
+        }
+        
+        return "";
+    }
+    
+    /**
+     * Recurso de una tarea almacenada en una instancia embebida. Solo se
+     * arranca la base de datos si se ejecuta xmlToTarea.
+     */
+    @State(Scope.Benchmark)
+    public static class RecursoEmbebido {
+        
+        private ConectorBD conector;
+        private Collection col;
+        private XMLResource recurso;
+        
+        @Setup(Level.Trial)
+        public void preparar() throws XMLDBException {
+            conector = BaseDatosEmbebida.arrancar();
+            BaseDatosEmbebida.vaciar(conector);
+            
+            Tarea tarea = BaseDatosEmbebida.tareaAleatoria(new Random(42));
+            new GestorTareas(conector, new AlmacenamientoPorDocumento()).crearTareas(Collections.singletonList(tarea));
+            
+            col = conector.tomarColeccion();
+            recurso = (XMLResource) col.getResource(tarea.getId() + ".xml");
+        }
+        
+        @TearDown(Level.Trial)
+        public void cerrar() throws XMLDBException {
+            conector.devolverColeccion(col);
+            BaseDatosEmbebida.vaciar(conector);
+            conector.desconectar();
+        }
+    }
+}
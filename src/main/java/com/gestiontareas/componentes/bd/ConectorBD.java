@@ -1,32 +1,116 @@
 package com.gestiontareas.componentes.bd;
 
+import com.gestiontareas.componentes.metricas.MetricaOperacion;
+import org.exist.xmldb.DatabaseInstanceManager;
 import org.exist.xmldb.EXistResource;
+import org.exist.xmldb.IndexQueryService;
 import org.xmldb.api.DatabaseManager;
 import org.xmldb.api.base.Collection;
 import org.xmldb.api.base.Database;
+import org.xmldb.api.base.Resource;
 import org.xmldb.api.base.XMLDBException;
 
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Componente encargado de gestionar la conexión con la base de datos eXist-db
  */
 public class ConectorBD {
     
     private static final String DRIVER = "org.exist.xmldb.DatabaseImpl";
-    private static final String URI = "xmldb:exist://localhost:8080/exist/xmlrpc";
     private static final String COLECCION_BASE = "/db/tareas";
+    private static final String COLECCION_CONFIG = "/db/system/config";
+    
+    // Marca incluida en collection.xconf; cambiarla fuerza a redesplegar y reindexar
+    private static final String VERSION_INDICES = "gestion-tareas indices v3";
+    private static final String CONFIGURACION_INDICES =
+        "<collection xmlns=\"http://exist-db.org/collection-config/1.0\">\n" +
+        "    <!-- " + VERSION_INDICES + " -->\n" +
+        "    <index xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">\n" +
+        "        <range>\n" +
+        "            <create qname=\"id\" type=\"xs:string\"/>\n" +
+        "            <create qname=\"estado\" type=\"xs:string\"/>\n" +
+        "            <create qname=\"prioridad\" type=\"xs:string\"/>\n" +
+        "            <create qname=\"fechaCreacion\" type=\"xs:date\"/>\n" +
+        "            <create qname=\"fechaVencimiento\" type=\"xs:date\"/>\n" +
+        "        </range>\n" +
+        "        <lucene>\n" +
+        "            <text qname=\"titulo\"/>\n" +
+        "            <text qname=\"descripcion\"/>\n" +
+        "        </lucene>\n" +
+        "    </index>\n" +
+        "</collection>";
     
+    // Configuración del pool de colecciones
+    private static final long ESPERA_MAXIMA_MS = 30_000;
+    private static final long VALIDAR_TRAS_INACTIVIDAD_MS = 60_000;
+    
+    private final ConfiguracionBD configuracion;
+    private final String uri;
     private String usuario;
     private String password;
     private Collection coleccion;
     
+    // Pool de colecciones: cada hilo toma una colección propia y la devuelve al terminar.
+    // Cada préstamo ocupa una plaza, que se libera al devolver o descartar la colección.
+    private final int tamanoPool;
+    private final Semaphore plazas;
+    private final BlockingQueue<Collection> coleccionesLibres;
+    private final Set<Collection> coleccionesPrestadas = ConcurrentHashMap.newKeySet();
+    private final Set<Collection> cerrarAlDevolver = ConcurrentHashMap.newKeySet();
+    private final Map<Collection, Long> ultimoUso = new ConcurrentHashMap<>();
+    private final AtomicInteger coleccionesAbiertas = new AtomicInteger();
+    private final AtomicLong prestamos = new AtomicLong();
+    private final AtomicLong esperas = new AtomicLong();
+    private final AtomicLong invalidaciones = new AtomicLong();
+    private final AtomicLong reconexiones = new AtomicLong();
+    private final MetricaOperacion metricaPrestamos = new MetricaOperacion("tomarColeccion");
+    private final MetricaOperacion metricaAperturas = new MetricaOperacion("abrirColeccion");
+    
     /**
      * Constructor del componente
      * @param usuario Usuario de eXist-db
      * @param password Contraseña de eXist-db
      */
     public ConectorBD(String usuario, String password) {
-        this.usuario = usuario;
-        this.password = password;
+        this(configuracionRemota(usuario, password));
+    }
+    
+    /**
+     * Constructor del componente a partir de una configuración completa
+     * (modo remoto o embebido, URI, credenciales y tamaño del pool)
+     * @param configuracion Configuración de la conexión
+     */
+    public ConectorBD(ConfiguracionBD configuracion) {
+        if (configuracion.getTamanoPool() < 1) {
+            throw new IllegalArgumentException("El tamaño del pool debe ser mayor que cero");
+        }
+        this.configuracion = configuracion;
+        this.uri = configuracion.getUri();
+        this.usuario = configuracion.getUsuario();
+        this.password = configuracion.getPassword();
+        this.tamanoPool = configuracion.getTamanoPool();
+        this.plazas = new Semaphore(tamanoPool, true);
+        this.coleccionesLibres = new ArrayBlockingQueue<>(tamanoPool);
+    }
+    
+    /**
+     * Crea la configuración por defecto (servidor remoto) con las credenciales indicadas
+     */
+    private static ConfiguracionBD configuracionRemota(String usuario, String password) {
+        Properties propiedades = new Properties();
+        propiedades.setProperty("bd.usuario", usuario);
+        propiedades.setProperty("bd.password", password);
+        return new ConfiguracionBD(propiedades);
     }
     
     /**
@@ -40,10 +124,14 @@ public class ConectorBD {
             Class<?> cl = Class.forName(DRIVER);
             Database database = (Database) cl.getDeclaredConstructor().newInstance();
             database.setProperty("create-database", "true");
+            if (configuracion.esEmbebido() && !configuracion.getFicheroConfiguracion().isEmpty()) {
+                // conf.xml de la instancia embebida (define, entre otros, el directorio de datos)
+                database.setProperty("configuration", configuracion.getFicheroConfiguracion());
+            }
             DatabaseManager.registerDatabase(database);
             
             // Obtener la colección raíz
-            Collection root = DatabaseManager.getCollection(URI + "/db", usuario, password);
+            Collection root = DatabaseManager.getCollection(uri + "/db", usuario, password);
             
             if (root == null) {
                 System.err.println("No se pudo conectar a la base de datos");
@@ -54,7 +142,9 @@ public class ConectorBD {
             coleccion = crearObtenerColeccion(root, "tareas");
             
             if (coleccion != null) {
-                System.out.println("Conexión exitosa con eXist-db");
+                configurarIndices();
+                System.out.println("Conexión exitosa con eXist-db (" +
+                    configuracion.getModo().name().toLowerCase() + ")");
                 System.out.println("Colección: " + coleccion.getName());
                 return true;
             }
@@ -92,6 +182,38 @@ public class ConectorBD {
         return child;
     }
     
+    /**
+     * Despliega la configuración de índices de la colección de tareas si no
+     * existe o si su versión no coincide con la actual, y reindexa la colección
+     * en ese caso. Un fallo aquí no impide trabajar, solo deja las consultas
+     * sin índices de rango.
+     */
+    private void configurarIndices() {
+        try {
+            Collection config = DatabaseManager.getCollection(
+                uri + COLECCION_CONFIG + COLECCION_BASE, usuario, password);
+            
+            if (config != null) {
+                Resource actual = config.getResource("collection.xconf");
+                boolean vigente = actual != null &&
+                    actual.getContent().toString().contains(VERSION_INDICES);
+                limpiarRecursos(config);
+                
+                if (vigente) {
+                    return;
+                }
+            }
+            
+            System.out.println("Configurando índices de la colección: " + COLECCION_BASE);
+            IndexQueryService service = (IndexQueryService) coleccion.getService("IndexQueryService", "1.0");
+            service.configureCollection(CONFIGURACION_INDICES);
+            service.reindexCollection();
+            
+        } catch (XMLDBException e) {
+            System.err.println("No se pudieron configurar los índices: " + e.getMessage());
+        }
+    }
+    
     /**
      * Obtiene la colección actual
      * @return La colección de tareas
@@ -101,12 +223,195 @@ public class ConectorBD {
     }
     
     /**
-     * Cierra la conexión con la base de datos
+     * Toma una colección del pool para uso exclusivo del hilo actual. Si no
+     * hay ninguna libre se abre una nueva hasta el tamaño máximo del pool, y a
+     * partir de ahí se espera a que otro hilo devuelva o descarte la suya
+     * (al descartarla queda sitio para abrir otra). Las colecciones
+     * que llevan tiempo sin usarse se validan antes de entregarlas.
+     * Debe devolverse siempre con devolverColeccion o invalidarColeccion.
+     * @return Colección de tareas
+     * @throws XMLDBException Si no se puede abrir la colección o se agota la espera
+     */
+    public Collection tomarColeccion() throws XMLDBException {
+        long inicio = System.nanoTime();
+        boolean correcto = false;
+        try {
+            Collection col = prestarColeccion();
+            correcto = true;
+            return col;
+        } finally {
+            metricaPrestamos.registrar(inicio, correcto);
+        }
+    }
+    
+    /**
+     * Busca o abre una colección válida para prestarla
+     * @return Colección de tareas
+     * @throws XMLDBException Si no se puede abrir la colección o se agota la espera
+     */
+    private Collection prestarColeccion() throws XMLDBException {
+        if (!plazas.tryAcquire()) {
+            esperas.incrementAndGet();
+            try {
+                if (!plazas.tryAcquire(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS)) {
+                    throw new XMLDBException(0, "No hay colecciones libres en el pool");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new XMLDBException(0, "Espera de colección interrumpida");
+            }
+        }
+        
+        // Con la plaza tomada hay una colección libre o sitio para abrir otra
+        try {
+            while (true) {
+                Collection col = coleccionesLibres.poll();
+                
+                if (col == null) {
+                    coleccionesAbiertas.incrementAndGet();
+                    try {
+                        col = abrirColeccion();
+                    } catch (XMLDBException e) {
+                        coleccionesAbiertas.decrementAndGet();
+                        throw e;
+                    }
+                } else if (!esValida(col)) {
+                    invalidaciones.incrementAndGet();
+                    cerrar(col);
+                    continue;
+                }
+                
+                prestamos.incrementAndGet();
+                coleccionesPrestadas.add(col);
+                return col;
+            }
+        } catch (XMLDBException | RuntimeException e) {
+            plazas.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Devuelve al pool una colección tomada con tomarColeccion
+     * @param col Colección a devolver
+     */
+    public void devolverColeccion(Collection col) {
+        if (col == null) {
+            return;
+        }
+        if (cerrarAlDevolver.remove(col)) {
+            // Prestada antes de desconectar: ya no pertenece al pool
+            cerrar(col);
+        } else if (coleccionesPrestadas.remove(col)) {
+            ultimoUso.put(col, System.currentTimeMillis());
+            coleccionesLibres.offer(col);
+        } else {
+            return;
+        }
+        plazas.release();
+    }
+    
+    /**
+     * Descarta una colección del pool tras un error, de modo que el siguiente
+     * préstamo abra una conexión nueva con el servidor. La plaza queda libre
+     * en el acto para los hilos que esperan.
+     * @param col Colección a descartar
+     */
+    public void invalidarColeccion(Collection col) {
+        if (col == null) {
+            return;
+        }
+        if (!cerrarAlDevolver.remove(col) && !coleccionesPrestadas.remove(col)) {
+            return;
+        }
+        invalidaciones.incrementAndGet();
+        cerrar(col);
+        plazas.release();
+    }
+    
+    /**
+     * Cierra una colección del pool y la descuenta de las abiertas
+     * @param col Colección a cerrar
+     */
+    private void cerrar(Collection col) {
+        ultimoUso.remove(col);
+        coleccionesAbiertas.decrementAndGet();
+        limpiarRecursos(col);
+    }
+    
+    /**
+     * Abre una nueva colección de tareas para el pool
+     * @return Colección abierta
+     * @throws XMLDBException Si hay error en la conexión
+     */
+    private Collection abrirColeccion() throws XMLDBException {
+        long inicio = System.nanoTime();
+        Collection col = null;
+        try {
+            col = DatabaseManager.getCollection(uri + COLECCION_BASE, usuario, password);
+        } finally {
+            metricaAperturas.registrar(inicio, col != null);
+        }
+        if (col == null) {
+            throw new XMLDBException(0, "No se pudo abrir la colección " + COLECCION_BASE);
+        }
+        if (invalidaciones.get() > 0) {
+            reconexiones.incrementAndGet();
+        }
+        ultimoUso.put(col, System.currentTimeMillis());
+        return col;
+    }
+    
+    /**
+     * Comprueba que una colección sigue operativa. Solo se consulta al servidor
+     * si la colección lleva un tiempo sin usarse.
+     * @param col Colección a validar
+     * @return true si se puede usar
+     */
+    private boolean esValida(Collection col) {
+        try {
+            if (!col.isOpen()) {
+                return false;
+            }
+            Long uso = ultimoUso.get(col);
+            if (uso != null && System.currentTimeMillis() - uso > VALIDAR_TRAS_INACTIVIDAD_MS) {
+                col.getResourceCount();
+            }
+            return true;
+        } catch (XMLDBException e) {
+            System.err.println("Colección del pool no válida: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Cierra la conexión con la base de datos. Las colecciones libres se
+     * cierran ya; las que siguen prestadas se cierran cuando se devuelven.
      */
     public void desconectar() {
+        Collection libre;
+        while ((libre = coleccionesLibres.poll()) != null) {
+            cerrar(libre);
+        }
+        for (Collection prestada : coleccionesPrestadas) {
+            if (coleccionesPrestadas.remove(prestada)) {
+                cerrarAlDevolver.add(prestada);
+            }
+        }
+        
         if (coleccion != null) {
             try {
-                coleccion.close();
+                if (configuracion.esEmbebido()) {
+                    // Detener la instancia embebida para que libere el directorio de datos
+                    Collection root = DatabaseManager.getCollection(uri + "/db", usuario, password);
+                    DatabaseInstanceManager manager =
+                        (DatabaseInstanceManager) root.getService("DatabaseInstanceManager", "1.0");
+                    coleccion.close();
+                    manager.shutdown();
+                } else {
+                    coleccion.close();
+                }
+                coleccion = null;
                 System.out.println("Conexión cerrada correctamente");
             } catch (XMLDBException e) {
                 System.err.println("Error al cerrar la conexión: " + e.getMessage());
@@ -156,10 +461,59 @@ public class ConectorBD {
     }
     
     public String getURI() {
-        return URI;
+        return uri;
+    }
+    
+    public ConfiguracionBD getConfiguracion() {
+        return configuracion;
     }
     
     public String getColeccionBase() {
         return COLECCION_BASE;
     }
-}
\ No newline at end of file
+    
+    // Métricas del pool
+    public int getTamanoPool() {
+        return tamanoPool;
+    }
+    
+    public int getColeccionesAbiertas() {
+        return Math.max(coleccionesAbiertas.get(), 0);
+    }
+    
+    public int getColeccionesLibres() {
+        return coleccionesLibres.size();
+    }
+    
+    public long getPrestamos() {
+        return prestamos.get();
+    }
+    
+    public long getEsperas() {
+        return esperas.get();
+    }
+    
+    public long getInvalidaciones() {
+        return invalidaciones.get();
+    }
+    
+    public long getReconexiones() {
+        return reconexiones.get();
+    }
+    
+    /**
+     * Métrica de los préstamos de colecciones (incluye la espera por una libre)
+     * @return Métrica del préstamo
+     */
+    public MetricaOperacion getMetricaPrestamos() {
+        return metricaPrestamos;
+    }
+    
+    /**
+     * Métrica de las aperturas de colecciones contra el servidor
+     * @return Métrica de la apertura
+     */
+    public MetricaOperacion getMetricaAperturas() {
+        return metricaAperturas;
+    }
+}
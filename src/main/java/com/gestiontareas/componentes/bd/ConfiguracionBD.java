@@ -0,0 +1,176 @@
+package com.gestiontareas.componentes.bd;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Configuración de la conexión con eXist-db.
+ * Los valores se leen del fichero gestion-tareas.properties del directorio de
+ * trabajo (si existe) y pueden sobrescribirse con propiedades del sistema
+ * (-Dbd.modo=embebido, por ejemplo).
+ *
+ * Los valores se validan al construir la configuración: un valor no válido
+ * produce una IllegalArgumentException cuyo mensaje indica la propiedad y los
+ * valores admitidos.
+ */
+public class ConfiguracionBD {
+    
+    public static final String FICHERO = "gestion-tareas.properties";
+    
+    private static final String URI_REMOTA = "xmldb:exist://localhost:8080/exist/xmlrpc";
+    private static final String URI_EMBEBIDA = "xmldb:exist://";
+    
+    /**
+     * Modo de acceso a la base de datos
+     */
+    public enum Modo {
+        /** Servidor eXist-db independiente, accedido por XML-RPC */
+        REMOTO,
+        /** Instancia de eXist-db dentro del propio proceso */
+        EMBEBIDO
+    }
+    
+    private final Properties propiedades;
+    private final Modo modo;
+    private final String uri;
+    private final String usuario;
+    private final String password;
+    private final String ficheroConfiguracion;
+    private final int tamanoPool;
+    
+    /**
+     * Constructor a partir de un conjunto de propiedades
+     * @param propiedades Propiedades de configuración
+     * @throws IllegalArgumentException Si alguna propiedad tiene un valor no válido
+     */
+    public ConfiguracionBD(Properties propiedades) {
+        this.propiedades = propiedades;
+        this.modo = leerModo(getPropiedad("bd.modo", "remoto"));
+        this.uri = getPropiedad("bd.uri", modo == Modo.EMBEBIDO ? URI_EMBEBIDA : URI_REMOTA);
+        this.usuario = getPropiedad("bd.usuario", "admin");
+        this.password = getPropiedad("bd.password", "admin");
+        this.ficheroConfiguracion = getPropiedad("bd.configuracion", "");
+        this.tamanoPool = getPropiedadEntera("bd.pool", 8, 1);
+    }
+    
+    private static Modo leerModo(String valor) {
+        for (Modo candidato : Modo.values()) {
+            if (candidato.name().equalsIgnoreCase(valor.trim())) {
+                return candidato;
+            }
+        }
+        throw new IllegalArgumentException("Valor no válido para bd.modo: '" + valor +
+            "' (valores admitidos: remoto, embebido)");
+    }
+    
+    /**
+     * Carga la configuración del fichero por defecto y de las propiedades del sistema
+     * @return Configuración cargada
+     */
+    public static ConfiguracionBD cargar() {
+        Properties propiedades = new Properties();
+        Path fichero = Paths.get(FICHERO);
+        
+        if (Files.isReadable(fichero)) {
+            try (InputStream entrada = Files.newInputStream(fichero)) {
+                propiedades.load(entrada);
+                System.out.println("Configuración cargada de " + fichero.toAbsolutePath());
+            } catch (IOException e) {
+                System.err.println("No se pudo leer " + FICHERO + ": " + e.getMessage());
+            }
+        }
+        
+        // Las propiedades del sistema tienen prioridad sobre el fichero
+        for (String clave : System.getProperties().stringPropertyNames()) {
+            if (clave.startsWith("bd.") || clave.startsWith("cache.") || clave.startsWith("metricas.")) {
+                propiedades.setProperty(clave, System.getProperty(clave));
+            }
+        }
+        
+        return new ConfiguracionBD(propiedades);
+    }
+    
+    /**
+     * Obtiene una propiedad cualquiera de la configuración
+     * @param clave Clave de la propiedad
+     * @param porDefecto Valor si no está definida
+     * @return Valor de la propiedad
+     */
+    public String getPropiedad(String clave, String porDefecto) {
+        return propiedades.getProperty(clave, porDefecto);
+    }
+    
+    /**
+     * Obtiene una propiedad numérica entera
+     * @param clave Clave de la propiedad
+     * @param porDefecto Valor si no está definida
+     * @param minimo Valor mínimo admitido
+     * @return Valor de la propiedad
+     * @throws IllegalArgumentException Si el valor no es un entero o es menor que el mínimo
+     */
+    public int getPropiedadEntera(String clave, int porDefecto, int minimo) {
+        return Math.toIntExact(getPropiedadLarga(clave, porDefecto, minimo, Integer.MAX_VALUE));
+    }
+    
+    /**
+     * Obtiene una propiedad numérica entera que puede superar el rango de int
+     * @param clave Clave de la propiedad
+     * @param porDefecto Valor si no está definida
+     * @param minimo Valor mínimo admitido
+     * @return Valor de la propiedad
+     * @throws IllegalArgumentException Si el valor no es un entero o es menor que el mínimo
+     */
+    public long getPropiedadLarga(String clave, long porDefecto, long minimo) {
+        return getPropiedadLarga(clave, porDefecto, minimo, Long.MAX_VALUE);
+    }
+    
+    private long getPropiedadLarga(String clave, long porDefecto, long minimo, long maximo) {
+        String valor = propiedades.getProperty(clave);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            long numero = Long.parseLong(valor.trim());
+            if (numero >= minimo && numero <= maximo) {
+                return numero;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo con el mismo mensaje que un valor fuera de rango
+        }
+        throw new IllegalArgumentException("Valor no válido para " + clave + ": '" + valor +
+            "' (se espera un número entero mayor o igual que " + minimo + ")");
+    }
+    
+    // Getters
+    public Modo getModo() {
+        return modo;
+    }
+    
+    public boolean esEmbebido() {
+        return modo == Modo.EMBEBIDO;
+    }
+    
+    public String getUri() {
+        return uri;
+    }
+    
+    public String getUsuario() {
+        return usuario;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public String getFicheroConfiguracion() {
+        return ficheroConfiguracion;
+    }
+    
+    public int getTamanoPool() {
+        return tamanoPool;
+    }
+}
@@ -0,0 +1,202 @@
+package com.gestiontareas.componentes.cache;
+
+import com.gestiontareas.modelo.Tarea;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché en memoria de tareas indexada por ID.
+ * Expulsa la tarea usada hace más tiempo cuando se supera la capacidad y
+ * descarta las entradas que superan su tiempo de vida.
+ *
+ * Para no guardar una tarea leída antes de una modificación que ya la ha
+ * invalidado, quien carga una tarea toma antes de leerla la generación de su
+ * ID y la guarda con guardarSiVigente, que la descarta si desde entonces ha
+ * habido una invalidación. Las generaciones se llevan por franjas de IDs:
+ * una invalidación de otro ID de la misma franja solo hace que se descarte
+ * una carga de más.
+ */
+public class CacheTareas {
+    
+    private static final int FRANJAS_GENERACION = 1024;
+    
+    private final int capacidad;
+    private final long vidaNanos;
+    private final Map<String, Entrada> entradas;
+    private final long[] generaciones = new long[FRANJAS_GENERACION];
+    
+    private long aciertos;
+    private long fallos;
+    private long expulsiones;
+    private long invalidaciones;
+    private long cargasDescartadas;
+    
+    /**
+     * Entrada de la caché con su instante de caducidad
+     */
+    private static final class Entrada {
+        private final Tarea tarea;
+        private final long caducidad;
+        
+        private Entrada(Tarea tarea, long caducidad) {
+            this.tarea = tarea;
+            this.caducidad = caducidad;
+        }
+    }
+    
+    /**
+     * Constructor de la caché
+     * @param capacidad Número máximo de tareas almacenadas
+     * @param vida Tiempo máximo que una tarea permanece en la caché
+     */
+    public CacheTareas(int capacidad, Duration vida) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que cero");
+        }
+        this.capacidad = capacidad;
+        this.vidaNanos = vida.toNanos();
+        // Orden de acceso: la primera entrada es la usada hace más tiempo
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> mayor) {
+                if (size() > CacheTareas.this.capacidad) {
+                    expulsiones++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Obtiene una tarea de la caché
+     * @param id ID de la tarea
+     * @return La tarea o null si no está o ha caducado
+     */
+    public synchronized Tarea obtener(String id) {
+        Entrada entrada = entradas.get(id);
+        
+        if (entrada == null) {
+            fallos++;
+            return null;
+        }
+        
+        if (System.nanoTime() - entrada.caducidad > 0) {
+            entradas.remove(id);
+            expulsiones++;
+            fallos++;
+            return null;
+        }
+        
+        aciertos++;
+        return entrada.tarea;
+    }
+    
+    /**
+     * Guarda una tarea en la caché
+     * @param tarea Tarea a guardar (con ID)
+     */
+    public synchronized void guardar(Tarea tarea) {
+        entradas.put(tarea.getId(), new Entrada(tarea, System.nanoTime() + vidaNanos));
+    }
+    
+    /**
+     * Obtiene la generación actual de un ID, que debe tomarse antes de leer
+     * la tarea de la base de datos
+     * @param id ID de la tarea
+     * @return Generación a pasar a guardarSiVigente
+     */
+    public synchronized long generacion(String id) {
+        return generaciones[franja(id)];
+    }
+    
+    /**
+     * Guarda una tarea leída de la base de datos, salvo que su ID se haya
+     * invalidado después de tomar la generación
+     * @param tarea Tarea a guardar (con ID)
+     * @param generacion Generación tomada antes de leer la tarea
+     * @return true si se ha guardado
+     */
+    public synchronized boolean guardarSiVigente(Tarea tarea, long generacion) {
+        if (generaciones[franja(tarea.getId())] != generacion) {
+            cargasDescartadas++;
+            return false;
+        }
+        guardar(tarea);
+        return true;
+    }
+    
+    /**
+     * Elimina una tarea de la caché tras modificarse en la base de datos.
+     * Las cargas de ese ID que estén en curso ya no se guardarán.
+     * @param id ID de la tarea
+     */
+    public synchronized void invalidar(String id) {
+        if (id == null) {
+            return;
+        }
+        generaciones[franja(id)]++;
+        if (entradas.remove(id) != null) {
+            invalidaciones++;
+        }
+    }
+    
+    /**
+     * Vacía la caché; las cargas en curso ya no se guardarán
+     */
+    public synchronized void limpiar() {
+        for (int i = 0; i < generaciones.length; i++) {
+            generaciones[i]++;
+        }
+        invalidaciones += entradas.size();
+        entradas.clear();
+    }
+    
+    private static int franja(String id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (FRANJAS_GENERACION - 1);
+    }
+    
+    // Estadísticas
+    public synchronized int getTamano() {
+        return entradas.size();
+    }
+    
+    public int getCapacidad() {
+        return capacidad;
+    }
+    
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+    
+    public synchronized long getFallos() {
+        return fallos;
+    }
+    
+    public synchronized long getExpulsiones() {
+        return expulsiones;
+    }
+    
+    public synchronized long getInvalidaciones() {
+        return invalidaciones;
+    }
+    
+    public synchronized long getCargasDescartadas() {
+        return cargasDescartadas;
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return "CacheTareas{" +
+                "tamano=" + entradas.size() +
+                ", aciertos=" + aciertos +
+                ", fallos=" + fallos +
+                ", expulsiones=" + expulsiones +
+                ", invalidaciones=" + invalidaciones +
+                ", cargasDescartadas=" + cargasDescartadas +
+                '}';
+    }
+}
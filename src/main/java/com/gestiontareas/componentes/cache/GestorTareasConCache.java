@@ -0,0 +1,96 @@
+package com.gestiontareas.componentes.cache;
+
+import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.modelo.Tarea;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Gestor de tareas con caché de lectura por ID.
+ * Las búsquedas por ID se sirven desde memoria cuando es posible, y cualquier
+ * creación, actualización o eliminación invalida la entrada afectada. Una
+ * lectura que coincide con una de esas operaciones no se guarda en la caché,
+ * ya que podría haber leído la versión anterior.
+ * Las tareas devueltas se comparten con la caché y no deben modificarse.
+ */
+public class GestorTareasConCache extends GestorTareas {
+    
+    private final CacheTareas cache;
+    
+    /**
+     * Constructor del componente
+     * @param conectorBD Componente de conexión a la base de datos
+     * @param capacidad Número máximo de tareas en caché
+     * @param vida Tiempo máximo que una tarea permanece en caché
+     */
+    public GestorTareasConCache(ConectorBD conectorBD, int capacidad, Duration vida) {
+        super(conectorBD);
+        this.cache = new CacheTareas(capacidad, vida);
+    }
+    
+    @Override
+    public Tarea buscarTareaPorId(String id) {
+        Tarea tarea = cache.obtener(id);
+        
+        if (tarea == null) {
+            // La generación se toma antes de leer: si la tarea se modifica o
+            // elimina durante la lectura, el valor leído no llega a la caché
+            long generacion = cache.generacion(id);
+            tarea = super.buscarTareaPorId(id);
+            if (tarea != null) {
+                cache.guardarSiVigente(tarea, generacion);
+            }
+        }
+        
+        return tarea;
+    }
+    
+    @Override
+    public boolean crearTarea(Tarea tarea) {
+        boolean creada = super.crearTarea(tarea);
+        cache.invalidar(tarea.getId());
+        return creada;
+    }
+    
+    @Override
+    public List<Boolean> crearTareas(List<Tarea> tareas) {
+        List<Boolean> resultados = super.crearTareas(tareas);
+        for (Tarea tarea : tareas) {
+            cache.invalidar(tarea.getId());
+        }
+        return resultados;
+    }
+    
+    @Override
+    public List<Boolean> guardarTareas(List<Tarea> tareas) {
+        List<Boolean> resultados = super.guardarTareas(tareas);
+        for (Tarea tarea : tareas) {
+            cache.invalidar(tarea.getId());
+        }
+        return resultados;
+    }
+    
+    @Override
+    public boolean actualizarTarea(Tarea tarea) {
+        boolean actualizada = super.actualizarTarea(tarea);
+        cache.invalidar(tarea.getId());
+        return actualizada;
+    }
+    
+    @Override
+    public boolean eliminarTarea(String id) {
+        boolean eliminada = super.eliminarTarea(id);
+        cache.invalidar(id);
+        return eliminada;
+    }
+    
+    /**
+     * Obtiene la caché para consultar sus estadísticas
+     * @return Caché de tareas
+     */
+    public CacheTareas getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,130 @@
+package com.gestiontareas.componentes.gestion;
+
+import com.gestiontareas.modelo.Tarea;
+import org.xmldb.api.base.Collection;
+import org.xmldb.api.base.ResourceSet;
+import org.xmldb.api.base.XMLDBException;
+import org.xmldb.api.modules.XMLResource;
+
+import java.util.Map;
+
+/**
+ * Disposición fragmentada: las tareas se reparten entre un número fijo de
+ * documentos contenedores (tareas-N.xml, con raíz &lt;tareas&gt;). Se evita
+ * así el coste por recurso de eXist-db (metadatos, bloqueos, DOM propio)
+ * cuando hay muchas tareas pequeñas. Las modificaciones son actualizaciones
+ * de nodos dentro del contenedor, nunca reescrituras del documento.
+ *
+ * El contenedor de una tarea se obtiene de la suma de los puntos de código
+ * de su ID módulo el número de fragmentos; el cálculo es el mismo en Java y
+ * en XQuery, de modo que los lotes pueden repartirse en el servidor.
+ */
+public class AlmacenamientoFragmentado implements EstrategiaAlmacenamiento {
+    
+    public static final int FRAGMENTOS_POR_DEFECTO = 16;
+    
+    private final int fragmentos;
+    
+    /**
+     * Constructor de la estrategia
+     * @param fragmentos Número de documentos contenedores
+     */
+    public AlmacenamientoFragmentado(int fragmentos) {
+        if (fragmentos < 1) {
+            throw new IllegalArgumentException("El número de fragmentos debe ser positivo: " + fragmentos);
+        }
+        this.fragmentos = fragmentos;
+    }
+    
+    /**
+     * Crea los documentos contenedores que falten. Se crean todos de antemano
+     * para que las altas solo tengan que insertar nodos.
+     */
+    @Override
+    public void preparar(Collection col) throws XMLDBException {
+        for (int i = 0; i < fragmentos; i++) {
+            String nombre = getDocumento(i);
+            if (col.getResource(nombre) == null) {
+                XMLResource recurso = (XMLResource) col.createResource(nombre, "XMLResource");
+                recurso.setContent("<tareas/>");
+                col.storeResource(recurso);
+            }
+        }
+    }
+    
+    @Override
+    public String seleccionarTareas(String origen) {
+        return origen + "/tareas/tarea";
+    }
+    
+    @Override
+    public String expresionTarea(String coleccion) {
+        return "doc('" + coleccion + "/' || " + expresionDocumento() + ")/tareas/tarea[id = $id]";
+    }
+    
+    @Override
+    public String expresionGuardar(String coleccion) {
+        return "(let $contenedor := doc('" + coleccion + "/' || " + expresionDocumento() + ")/tareas\n" +
+               " let $previa := $contenedor/tarea[id = $id]\n" +
+               " return if (exists($previa)) then update replace $previa[1] with $tarea\n" +
+               "        else update insert $tarea into $contenedor)";
+    }
+    
+    @Override
+    public void guardar(Collection col, CacheConsultas consultas, Tarea tarea, String xml) throws XMLDBException {
+        String consulta =
+            "declare variable $id external;\n" +
+            "declare variable $xml external;\n" +
+            "let $tarea := parse-xml($xml)/tarea\n" +
+            "return " + expresionGuardar(col.getName());
+        consultas.ejecutar(consulta, Map.of("id", tarea.getId(), "xml", xml));
+    }
+    
+    @Override
+    public XMLResource leer(Collection col, CacheConsultas consultas, String id) throws XMLDBException {
+        String consulta =
+            "declare variable $id external;\n" +
+            expresionTarea(col.getName());
+        ResourceSet resultado = consultas.ejecutar(consulta, Map.of("id", id));
+        return resultado.getSize() > 0 ? (XMLResource) resultado.getResource(0) : null;
+    }
+    
+    @Override
+    public boolean eliminar(Collection col, CacheConsultas consultas, String id) throws XMLDBException {
+        String consulta =
+            "declare variable $id external;\n" +
+            "let $tarea := " + expresionTarea(col.getName()) + "\n" +
+            "return if (empty($tarea)) then false() else (update delete $tarea, true())";
+        ResourceSet resultado = consultas.ejecutar(consulta, Map.of("id", id));
+        return resultado.getSize() > 0 && "true".equals(resultado.getResource(0).getContent().toString());
+    }
+    
+    /**
+     * Obtiene el documento contenedor de una tarea
+     * @param id ID de la tarea
+     * @return Nombre del documento dentro de la colección
+     */
+    public String getDocumentoDeTarea(String id) {
+        return getDocumento((int) (id.codePoints().asLongStream().sum() % fragmentos));
+    }
+    
+    /**
+     * Expresión XQuery equivalente a getDocumentoDeTarea para la variable $id
+     */
+    private String expresionDocumento() {
+        return "'tareas-' || (sum(string-to-codepoints($id)) mod " + fragmentos + ") || '.xml'";
+    }
+    
+    private String getDocumento(int fragmento) {
+        return "tareas-" + fragmento + ".xml";
+    }
+    
+    public int getFragmentos() {
+        return fragmentos;
+    }
+    
+    @Override
+    public String toString() {
+        return "fragmentado en " + fragmentos + " documentos";
+    }
+}
@@ -0,0 +1,63 @@
+package com.gestiontareas.componentes.gestion;
+
+import com.gestiontareas.modelo.Tarea;
+import org.xmldb.api.base.Collection;
+import org.xmldb.api.base.Resource;
+import org.xmldb.api.base.XMLDBException;
+import org.xmldb.api.modules.XMLResource;
+
+/**
+ * Disposición original: un documento por tarea, llamado &lt;id&gt;.xml, cuya
+ * raíz es el elemento tarea. Las lecturas, altas y bajas individuales usan
+ * directamente la API de recursos, sin consultas.
+ */
+public class AlmacenamientoPorDocumento implements EstrategiaAlmacenamiento {
+    
+    @Override
+    public void preparar(Collection col) {
+        // No necesita documentos previos
+    }
+    
+    @Override
+    public String seleccionarTareas(String origen) {
+        return origen + "/tarea";
+    }
+    
+    @Override
+    public String expresionTarea(String coleccion) {
+        return "(let $ruta := '" + coleccion + "/' || $id || '.xml' " +
+               "return if (doc-available($ruta)) then doc($ruta)/tarea else ())";
+    }
+    
+    @Override
+    public String expresionGuardar(String coleccion) {
+        return "xmldb:store('" + coleccion + "', $id || '.xml', $tarea)";
+    }
+    
+    @Override
+    public void guardar(Collection col, CacheConsultas consultas, Tarea tarea, String xml) throws XMLDBException {
+        XMLResource recurso = (XMLResource) col.createResource(tarea.getId() + ".xml", "XMLResource");
+        recurso.setContent(xml);
+        col.storeResource(recurso);
+    }
+    
+    @Override
+    public XMLResource leer(Collection col, CacheConsultas consultas, String id) throws XMLDBException {
+        return (XMLResource) col.getResource(id + ".xml");
+    }
+    
+    @Override
+    public boolean eliminar(Collection col, CacheConsultas consultas, String id) throws XMLDBException {
+        Resource recurso = col.getResource(id + ".xml");
+        if (recurso == null) {
+            return false;
+        }
+        col.removeResource(recurso);
+        return true;
+    }
+    
+    @Override
+    public String toString() {
+        return "documento por tarea";
+    }
+}
@@ -0,0 +1,160 @@
+package com.gestiontareas.componentes.gestion;
+
+import org.xmldb.api.base.Collection;
+import org.xmldb.api.base.CompiledExpression;
+import org.xmldb.api.base.ResourceSet;
+import org.xmldb.api.base.XMLDBException;
+import org.xmldb.api.modules.XQueryService;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Caché de consultas XQuery compiladas sobre una colección.
+ * Las consultas declaran sus parámetros como variables externas, de modo que
+ * cada forma de consulta se compila una sola vez y en cada ejecución solo se
+ * enlazan los valores. Al no concatenar valores en el texto de la consulta se
+ * evita también la inyección de XQuery.
+ *
+ * El servicio XQuery conserva las variables declaradas entre ejecuciones, así
+ * que cada ejecución debe dar valor a todas las variables externas que declara
+ * la consulta, y solo a esas: si faltara alguna, la consulta vería el valor
+ * de la ejecución anterior. ejecutar lo comprueba antes de enlazar.
+ */
+public class CacheConsultas {
+    
+    private final Collection coleccion;
+    private final XQueryService service;
+    private final Map<String, Consulta> compiladas = new HashMap<>();
+    
+    private long compilaciones;
+    private long aciertos;
+    private long nanosCompilacion;
+    
+    private static final Pattern VARIABLE_EXTERNA =
+        Pattern.compile("declare\\s+variable\\s+\\$([\\w.-]+)(?:\\s+as\\s+[^;]+?)?\\s+external\\s*;");
+    
+    /**
+     * Consulta compilada junto con sus variables externas
+     */
+    private static final class Consulta {
+        private final CompiledExpression expresion;
+        private final Set<String> externas;
+        
+        private Consulta(CompiledExpression expresion, Set<String> externas) {
+            this.expresion = expresion;
+            this.externas = externas;
+        }
+    }
+    
+    /**
+     * Constructor de la caché
+     * @param col Colección sobre la que se ejecutan las consultas
+     * @throws XMLDBException Si no se puede obtener el servicio XQuery
+     */
+    public CacheConsultas(Collection col) throws XMLDBException {
+        this.coleccion = col;
+        this.service = (XQueryService) col.getService("XQueryService", "1.0");
+    }
+    
+    /**
+     * Obtiene la colección a la que está asociada la caché
+     * @return Colección de las consultas
+     */
+    public Collection getColeccion() {
+        return coleccion;
+    }
+    
+    /**
+     * Ejecuta una consulta, compilándola solo la primera vez que se usa
+     * @param consulta Texto de la consulta con sus variables externas
+     * @param variables Valores de las variables externas
+     * @return Resultado de la consulta
+     * @throws XMLDBException Si hay error al compilar o ejecutar
+     * @throws IllegalArgumentException Si las variables no son exactamente las
+     *                                  externas que declara la consulta
+     */
+    public synchronized ResourceSet ejecutar(String consulta, Map<String, ?> variables) throws XMLDBException {
+        Consulta compilada = compiladas.get(consulta);
+        
+        if (compilada == null) {
+            long inicio = System.nanoTime();
+            CompiledExpression expresion = service.compile(consulta);
+            nanosCompilacion += System.nanoTime() - inicio;
+            compilaciones++;
+            compilada = new Consulta(expresion, variablesExternas(consulta));
+            compiladas.put(consulta, compilada);
+        } else {
+            aciertos++;
+        }
+        
+        if (!compilada.externas.equals(variables.keySet())) {
+            throw new IllegalArgumentException("La consulta declara las variables externas " +
+                compilada.externas + " y se han dado " + variables.keySet());
+        }
+        for (Map.Entry<String, ?> variable : variables.entrySet()) {
+            service.declareVariable(variable.getKey(), variable.getValue());
+        }
+        
+        return service.execute(compilada.expresion);
+    }
+    
+    /**
+     * Obtiene los nombres de las variables externas declaradas en una consulta
+     */
+    static Set<String> variablesExternas(String consulta) {
+        Set<String> externas = new HashSet<>();
+        Matcher declaracion = VARIABLE_EXTERNA.matcher(consulta);
+        while (declaracion.find()) {
+            externas.add(declaracion.group(1));
+        }
+        return externas;
+    }
+    
+    /**
+     * Ejecuta una consulta sin variables externas
+     * @param consulta Texto de la consulta
+     * @return Resultado de la consulta
+     * @throws XMLDBException Si hay error al compilar o ejecutar
+     */
+    public ResourceSet ejecutar(String consulta) throws XMLDBException {
+        return ejecutar(consulta, Map.of());
+    }
+    
+    /**
+     * Obtiene el número de consultas compiladas
+     * @return Compilaciones realizadas
+     */
+    public synchronized long getCompilaciones() {
+        return compilaciones;
+    }
+    
+    /**
+     * Obtiene el número de ejecuciones que reutilizaron una consulta compilada
+     * @return Aciertos de la caché
+     */
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+    
+    /**
+     * Obtiene el tiempo total invertido en compilar consultas
+     * @return Tiempo en nanosegundos
+     */
+    public synchronized long getTiempoCompilacionNanos() {
+        return nanosCompilacion;
+    }
+    
+    /**
+     * Estima el tiempo de compilación ahorrado por la caché, usando el tiempo
+     * medio de compilación observado
+     * @return Tiempo ahorrado en nanosegundos
+     */
+    public synchronized long getAhorroEstimadoNanos() {
+        return compilaciones == 0 ? 0 : aciertos * (nanosCompilacion / compilaciones);
+    }
+}
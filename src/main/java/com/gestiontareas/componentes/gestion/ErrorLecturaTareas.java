@@ -0,0 +1,19 @@
+package com.gestiontareas.componentes.gestion;
+
+/**
+ * Error de la base de datos al leer tareas donde no se puede devolver un
+ * valor de error sin confundirlo con un resultado válido: el final de los
+ * datos en el Stream de GestorTareas.streamTareas o una página vacía en
+ * GestorTareas.obtenerPaginaListado
+ */
+public class ErrorLecturaTareas extends RuntimeException {
+    
+    /**
+     * Constructor de la excepción
+     * @param mensaje Descripción del error
+     * @param causa Excepción original de la base de datos
+     */
+    public ErrorLecturaTareas(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
@@ -0,0 +1,201 @@
+package com.gestiontareas.componentes.gestion;
+
+import com.gestiontareas.modelo.Tarea;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+/**
+ * Serializa tareas a XML en una sola pasada. El texto se escapa mientras se
+ * copia al destino, copiando de golpe los tramos que no necesitan escape, y
+ * las fechas se escriben dígito a dígito, de modo que escribir una tarea no
+ * crea objetos intermedios. El destino puede ser un StringBuilder reutilizado
+ * o cualquier Appendable (un Writer sobre un fichero o un socket, por ejemplo).
+ */
+public final class EscritorXMLTareas {
+    
+    public static final String DECLARACION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+    
+    // Buffers por hilo para tareaToXML; se descartan si crecen demasiado
+    private static final int CAPACIDAD_INICIAL = 512;
+    private static final int CAPACIDAD_MAXIMA_REUTILIZADA = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER =
+        ThreadLocal.withInitial(() -> new StringBuilder(CAPACIDAD_INICIAL));
+    
+    private EscritorXMLTareas() {
+    }
+    
+    /**
+     * Serializa una tarea como documento XML completo usando el buffer del
+     * hilo actual; solo se crea el String resultante
+     * @param tarea Tarea a serializar
+     * @return Documento XML de la tarea
+     */
+    public static String aDocumento(Tarea tarea) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.append(DECLARACION);
+        escribirTarea(buffer, tarea);
+        String xml = buffer.toString();
+        
+        if (buffer.capacity() > CAPACIDAD_MAXIMA_REUTILIZADA) {
+            BUFFER.remove();
+        }
+        return xml;
+    }
+    
+    /**
+     * Escribe el elemento tarea en un StringBuilder
+     * @param destino Buffer de salida
+     * @param tarea Tarea a escribir
+     */
+    public static void escribirTarea(StringBuilder destino, Tarea tarea) {
+        try {
+            escribirTarea((Appendable) destino, tarea);
+        } catch (IOException e) {
+            // StringBuilder no lanza IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Escribe el elemento tarea en cualquier destino
+     * @param destino Destino de la salida
+     * @param tarea Tarea a escribir
+     * @throws IOException Si falla la escritura en el destino
+     */
+    public static void escribirTarea(Appendable destino, Tarea tarea) throws IOException {
+        destino.append("<tarea>\n");
+        escribirCampo(destino, "id", tarea.getId());
+        escribirCampo(destino, "titulo", tarea.getTitulo());
+        escribirCampo(destino, "descripcion", tarea.getDescripcion());
+        escribirCampo(destino, "estado", tarea.getEstado());
+        escribirCampo(destino, "prioridad", tarea.getPrioridad());
+        if (tarea.getFechaCreacion() != null) {
+            escribirFecha(destino, "fechaCreacion", tarea.getFechaCreacion());
+        }
+        if (tarea.getFechaVencimiento() != null) {
+            escribirFecha(destino, "fechaVencimiento", tarea.getFechaVencimiento());
+        }
+        destino.append("</tarea>");
+    }
+    
+    /**
+     * Escribe varias tareas dentro de un elemento raíz tareas
+     * @param destino Destino de la salida
+     * @param tareas Tareas a escribir
+     * @throws IOException Si falla la escritura en el destino
+     */
+    public static void escribirTareas(Appendable destino, Iterable<Tarea> tareas) throws IOException {
+        destino.append("<tareas>");
+        for (Tarea tarea : tareas) {
+            escribirTarea(destino, tarea);
+        }
+        destino.append("</tareas>");
+    }
+    
+    /**
+     * Escapa los caracteres especiales de XML. Si el texto no tiene ninguno
+     * se devuelve el mismo objeto, sin copiarlo.
+     * @param texto Texto a escapar (null se trata como vacío)
+     * @return Texto escapado
+     */
+    public static String escapar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        
+        if (primerEspecial(texto, 0) < 0) {
+            return texto;
+        }
+        
+        StringBuilder escapado = new StringBuilder(texto.length() + 16);
+        try {
+            escapar(escapado, texto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return escapado.toString();
+    }
+    
+    /**
+     * Copia un texto al destino escapando los caracteres especiales de XML
+     * @param destino Destino de la salida
+     * @param texto Texto a copiar (null no escribe nada)
+     * @throws IOException Si falla la escritura en el destino
+     */
+    public static void escapar(Appendable destino, CharSequence texto) throws IOException {
+        if (texto == null) {
+            return;
+        }
+        
+        int inicio = 0;
+        int especial;
+        while ((especial = primerEspecial(texto, inicio)) >= 0) {
+            destino.append(texto, inicio, especial);
+            destino.append(entidad(texto.charAt(especial)));
+            inicio = especial + 1;
+        }
+        destino.append(texto, inicio, texto.length());
+    }
+    
+    private static void escribirCampo(Appendable destino, String nombre, String valor) throws IOException {
+        destino.append("  <").append(nombre).append('>');
+        escapar(destino, valor);
+        destino.append("</").append(nombre).append(">\n");
+    }
+    
+    private static void escribirFecha(Appendable destino, String nombre, LocalDate fecha) throws IOException {
+        destino.append("  <").append(nombre).append('>');
+        int anio = fecha.getYear();
+        if (anio >= 0 && anio <= 9999) {
+            escribirDigitos(destino, anio, 1000);
+            destino.append('-');
+            escribirDigitos(destino, fecha.getMonthValue(), 10);
+            destino.append('-');
+            escribirDigitos(destino, fecha.getDayOfMonth(), 10);
+        } else {
+            // Años fuera del formato corto: se usa el formato ISO completo
+            destino.append(fecha.toString());
+        }
+        destino.append("</").append(nombre).append(">\n");
+    }
+    
+    private static void escribirDigitos(Appendable destino, int valor, int divisorInicial) throws IOException {
+        for (int divisor = divisorInicial; divisor > 0; divisor /= 10) {
+            destino.append((char) ('0' + (valor / divisor) % 10));
+        }
+    }
+    
+    private static int primerEspecial(CharSequence texto, int desde) {
+        for (int i = desde; i < texto.length(); i++) {
+            switch (texto.charAt(i)) {
+                case '&':
+                case '<':
+                case '>':
+                case '"':
+                case '\'':
+                    return i;
+                default:
+                    break;
+            }
+        }
+        return -1;
+    }
+    
+    private static String entidad(char c) {
+        switch (c) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '"':
+                return "&quot;";
+            default:
+                return "&apos;";
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.gestiontareas.componentes.gestion;
+
+import com.gestiontareas.componentes.bd.ConfiguracionBD;
+import com.gestiontareas.modelo.Tarea;
+import org.xmldb.api.base.Collection;
+import org.xmldb.api.base.XMLDBException;
+import org.xmldb.api.modules.XMLResource;
+
+/**
+ * Forma en la que las tareas se guardan en la colección de eXist-db.
+ * GestorTareas delega en la estrategia todo lo que depende de la
+ * disposición de los documentos: dónde se guarda cada tarea, cómo se
+ * localiza y cómo se seleccionan todas en una consulta.
+ *
+ * Las expresiones XQuery que devuelve la estrategia pueden usar las
+ * variables $id (ID de una tarea) y $tarea (elemento tarea a guardar),
+ * que declara quien construye la consulta.
+ */
+public interface EstrategiaAlmacenamiento {
+    
+    /**
+     * Prepara la colección para esta disposición. Se llama una vez, antes de
+     * la primera operación.
+     * @param col Colección de tareas
+     * @throws XMLDBException Si hay error en la base de datos
+     */
+    void preparar(Collection col) throws XMLDBException;
+    
+    /**
+     * Construye la ruta XPath de las tareas contenidas en unos documentos
+     * @param origen Expresión con los documentos (collection(...) o doc(...))
+     * @return Expresión que selecciona los elementos tarea
+     */
+    String seleccionarTareas(String origen);
+    
+    /**
+     * Expresión XQuery que localiza el elemento de la tarea con ID $id
+     * @param coleccion Ruta de la colección de tareas
+     * @return Expresión que devuelve el elemento tarea o la secuencia vacía
+     */
+    String expresionTarea(String coleccion);
+    
+    /**
+     * Expresión XQuery que guarda el elemento $tarea, con ID $id, y
+     * sustituye la versión anterior si la hubiera
+     * @param coleccion Ruta de la colección de tareas
+     * @return Expresión de actualización
+     */
+    String expresionGuardar(String coleccion);
+    
+    /**
+     * Guarda una tarea completa, sustituyendo la anterior si existía
+     * @param col Colección de tareas
+     * @param consultas Caché de consultas de la colección
+     * @param tarea Tarea a guardar
+     * @param xml Tarea serializada
+     * @throws XMLDBException Si hay error en la base de datos
+     */
+    void guardar(Collection col, CacheConsultas consultas, Tarea tarea, String xml) throws XMLDBException;
+    
+    /**
+     * Lee el elemento de una tarea
+     * @param col Colección de tareas
+     * @param consultas Caché de consultas de la colección
+     * @param id ID de la tarea
+     * @return Recurso cuyo contenido es el elemento tarea, o null si no existe
+     * @throws XMLDBException Si hay error en la base de datos
+     */
+    XMLResource leer(Collection col, CacheConsultas consultas, String id) throws XMLDBException;
+    
+    /**
+     * Elimina una tarea
+     * @param col Colección de tareas
+     * @param consultas Caché de consultas de la colección
+     * @param id ID de la tarea
+     * @return true si la tarea existía y se eliminó
+     * @throws XMLDBException Si hay error en la base de datos
+     */
+    boolean eliminar(Collection col, CacheConsultas consultas, String id) throws XMLDBException;
+    
+    /**
+     * Crea la estrategia indicada en la configuración: bd.almacenamiento
+     * "documento" (por defecto) o "fragmentado", con bd.fragmentos documentos
+     * contenedores
+     * @param configuracion Configuración de la base de datos
+     * @return Estrategia de almacenamiento
+     * @throws IllegalArgumentException Si bd.almacenamiento o bd.fragmentos no son válidos
+     */
+    static EstrategiaAlmacenamiento desdeConfiguracion(ConfiguracionBD configuracion) {
+        String tipo = configuracion.getPropiedad("bd.almacenamiento", "documento").trim();
+        if ("fragmentado".equalsIgnoreCase(tipo)) {
+            int fragmentos = configuracion.getPropiedadEntera("bd.fragmentos",
+                AlmacenamientoFragmentado.FRAGMENTOS_POR_DEFECTO, 1);
+            return new AlmacenamientoFragmentado(fragmentos);
+        }
+        if (!"documento".equalsIgnoreCase(tipo)) {
+            throw new IllegalArgumentException("Valor no válido para bd.almacenamiento: '" + tipo +
+                "' (valores admitidos: documento, fragmentado)");
+        }
+        return new AlmacenamientoPorDocumento();
+    }
+}
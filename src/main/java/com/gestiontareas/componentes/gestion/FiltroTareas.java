@@ -0,0 +1,138 @@
+package com.gestiontareas.componentes.gestion;
+
+import java.time.LocalDate;
+
+/**
+ * Criterios de filtrado y ordenación de tareas que se resuelven en el servidor.
+ * Los campos a null no filtran. El texto se busca con el índice de texto
+ * completo sobre título y descripción; si no se indica otra ordenación, los
+ * resultados se ordenan por relevancia. Cada combinación de criterios presentes da
+ * lugar a una forma de consulta distinta, que se compila una sola vez.
+ */
+public class FiltroTareas {
+    
+    /**
+     * Campos por los que se puede ordenar, con su expresión de ordenación XQuery
+     */
+    public enum CampoOrden {
+        ID("$t/id"),
+        TITULO("$t/titulo"),
+        // Estado y prioridad se ordenan por su progresión, no alfabéticamente
+        ESTADO("index-of(('pendiente', 'en_proceso', 'completada'), string($t/estado))"),
+        PRIORIDAD("index-of(('baja', 'media', 'alta'), string($t/prioridad))"),
+        FECHA_VENCIMIENTO("$t/fechaVencimiento");
+        
+        private final String expresion;
+        
+        CampoOrden(String expresion) {
+            this.expresion = expresion;
+        }
+        
+        public String getExpresion() {
+            return expresion;
+        }
+    }
+    
+    private String texto;
+    private String estado;
+    private String prioridad;
+    private LocalDate vencimientoDesde;
+    private LocalDate vencimientoHasta;
+    private CampoOrden ordenarPor;
+    private boolean descendente;
+    
+    /**
+     * Indica si el filtro no restringe ni ordena nada
+     * @return true si no hay ningún criterio
+     */
+    public boolean estaVacio() {
+        return texto == null && estado == null && prioridad == null && vencimientoDesde == null &&
+               vencimientoHasta == null && ordenarPor == null;
+    }
+    
+    /**
+     * Crea una copia independiente del filtro
+     * @return Copia del filtro
+     */
+    public FiltroTareas copia() {
+        FiltroTareas copia = new FiltroTareas();
+        copia.texto = texto;
+        copia.estado = estado;
+        copia.prioridad = prioridad;
+        copia.vencimientoDesde = vencimientoDesde;
+        copia.vencimientoHasta = vencimientoHasta;
+        copia.ordenarPor = ordenarPor;
+        copia.descendente = descendente;
+        return copia;
+    }
+    
+    // Getters y Setters
+    public String getTexto() {
+        return texto;
+    }
+    
+    public void setTexto(String texto) {
+        this.texto = texto != null && !texto.trim().isEmpty() ? texto.trim() : null;
+    }
+    
+    public String getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+    
+    public String getPrioridad() {
+        return prioridad;
+    }
+    
+    public void setPrioridad(String prioridad) {
+        this.prioridad = prioridad;
+    }
+    
+    public LocalDate getVencimientoDesde() {
+        return vencimientoDesde;
+    }
+    
+    public void setVencimientoDesde(LocalDate vencimientoDesde) {
+        this.vencimientoDesde = vencimientoDesde;
+    }
+    
+    public LocalDate getVencimientoHasta() {
+        return vencimientoHasta;
+    }
+    
+    public void setVencimientoHasta(LocalDate vencimientoHasta) {
+        this.vencimientoHasta = vencimientoHasta;
+    }
+    
+    public CampoOrden getOrdenarPor() {
+        return ordenarPor;
+    }
+    
+    public void setOrdenarPor(CampoOrden ordenarPor) {
+        this.ordenarPor = ordenarPor;
+    }
+    
+    public boolean isDescendente() {
+        return descendente;
+    }
+    
+    public void setDescendente(boolean descendente) {
+        this.descendente = descendente;
+    }
+    
+    @Override
+    public String toString() {
+        return "FiltroTareas{" +
+                "texto='" + texto + '\'' +
+                ", estado='" + estado + '\'' +
+                ", prioridad='" + prioridad + '\'' +
+                ", vencimientoDesde=" + vencimientoDesde +
+                ", vencimientoHasta=" + vencimientoHasta +
+                ", ordenarPor=" + ordenarPor +
+                ", descendente=" + descendente +
+                '}';
+    }
+}
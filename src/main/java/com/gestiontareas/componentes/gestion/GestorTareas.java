@@ -1,59 +1,125 @@
 package com.gestiontareas.componentes.gestion;
 
 import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.metricas.MetricaOperacion;
+import com.gestiontareas.componentes.metricas.MetricasTareas;
 import com.gestiontareas.modelo.Tarea;
+import org.exist.xmldb.EXistResource;
 import org.xmldb.api.base.Collection;
 import org.xmldb.api.base.Resource;
 import org.xmldb.api.base.ResourceIterator;
 import org.xmldb.api.base.ResourceSet;
 import org.xmldb.api.base.XMLDBException;
 import org.xmldb.api.modules.XMLResource;
-import org.xmldb.api.modules.XPathQueryService;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Componente encargado de gestionar las operaciones CRUD sobre las tareas
  */
 public class GestorTareas {
     
+    private static final int TAMANO_LOTE_POR_DEFECTO = 500;
+    private static final int TAMANO_PAGINA_BUSQUEDA = 50;
+    private static final int TAMANO_ESTIMADO_TAREA = 384;
+    
     private ConectorBD conectorBD;
+    private final EstrategiaAlmacenamiento estrategia;
+    private volatile boolean almacenamientoPreparado = false;
+    private final MetricasTareas metricas;
+    // Métrica de la operación en curso en cada hilo, para sumar bytes y documentos
+    private final ThreadLocal<MetricaOperacion> metricaActual = new ThreadLocal<>();
+    private int tamanoLote = TAMANO_LOTE_POR_DEFECTO;
+    private final List<OyenteCambiosTareas> oyentes = new CopyOnWriteArrayList<>();
+    
+    // Cada colección del pool tiene su propia caché de consultas compiladas
+    private final Map<Collection, CacheConsultas> cachesConsultas =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    
+    /**
+     * Operación que se ejecuta con una colección tomada del pool
+     */
+    @FunctionalInterface
+    private interface OperacionColeccion<T> {
+        T ejecutar(Collection col, CacheConsultas consultas) throws XMLDBException;
+    }
     
     /**
-     * Constructor del componente
+     * Constructor del componente. La disposición de los documentos se toma
+     * de la configuración de la base de datos (bd.almacenamiento).
      * @param conectorBD Componente de conexión a la base de datos
      */
     public GestorTareas(ConectorBD conectorBD) {
+        this(conectorBD, EstrategiaAlmacenamiento.desdeConfiguracion(conectorBD.getConfiguracion()));
+    }
+    
+    /**
+     * Constructor del componente con una disposición de documentos concreta
+     * @param conectorBD Componente de conexión a la base de datos
+     * @param estrategia Forma de guardar las tareas en la colección
+     */
+    public GestorTareas(ConectorBD conectorBD, EstrategiaAlmacenamiento estrategia) {
         this.conectorBD = conectorBD;
+        this.estrategia = estrategia;
+        this.metricas = new MetricasTareas(conectorBD);
     }
     
     /**
-     * Crea una nueva tarea en la base de datos
+     * Crea una nueva tarea en la base de datos. Si la tarea no tiene ID se le
+     * asigna uno nuevo; si ya trae uno y existe otra tarea con ese ID, no se
+     * crea (para sustituir tareas existentes está guardarTareas).
      * @param tarea Objeto Tarea a crear
      * @return true si se creó correctamente
      */
     public boolean crearTarea(Tarea tarea) {
         try {
-            // Generar ID único si no tiene
-            if (tarea.getId() == null || tarea.getId().isEmpty()) {
+            // Generar ID único si no tiene; solo un ID dado puede existir ya
+            boolean idNuevo = tarea.getId() == null || tarea.getId().isEmpty();
+            if (idNuevo) {
                 tarea.setId(UUID.randomUUID().toString());
             }
             
             // Convertir la tarea a XML
             String xml = tareaToXML(tarea);
             
-            // Obtener la colección
-            Collection col = conectorBD.getColeccion();
-            
-            // Crear el recurso XML
-            XMLResource recurso = (XMLResource) col.createResource(tarea.getId() + ".xml", "XMLResource");
-            recurso.setContent(xml);
-            col.storeResource(recurso);
+            // Guardar la tarea en una colección del pool. Con un ID dado, la
+            // comprobación y el guardado van en la misma consulta, como en los lotes
+            boolean creada = conColeccion("crearTarea", (col, consultas) -> {
+                registrarEnvio(xml.length());
+                if (idNuevo) {
+                    estrategia.guardar(col, consultas, tarea, xml);
+                    return true;
+                }
+                ResourceSet resultado = consultas.ejecutar(consultaCrearSiNoExiste(),
+                    Map.of("id", tarea.getId(), "xml", xml));
+                return resultado.getSize() > 0 &&
+                    "true".equals(resultado.getResource(0).getContent().toString());
+            });
             
-            System.out.println("Tarea creada: " + tarea.getId());
+            if (!creada) {
+                System.err.println("Error al crear tarea: ya existe una tarea con ID " + tarea.getId());
+                return false;
+            }
+            notificarGuardada(tarea);
             return true;
             
         } catch (XMLDBException e) {
@@ -63,6 +129,132 @@ public class GestorTareas {
         }
     }
     
+    /**
+     * Consulta que guarda la tarea $xml solo si no existe ninguna con ID $id
+     * @return Texto de la consulta; devuelve true si se guardó
+     */
+    private String consultaCrearSiNoExiste() {
+        String coleccion = conectorBD.getColeccionBase();
+        return "declare variable $id external;\n" +
+               "declare variable $xml external;\n" +
+               "if (exists(" + estrategia.expresionTarea(coleccion) + ")) then false()\n" +
+               "else\n" +
+               "    let $tarea := parse-xml($xml)/tarea\n" +
+               "    return (" + estrategia.expresionGuardar(coleccion) + ", true())[last()]";
+    }
+    
+    /**
+     * Crea varias tareas agrupándolas en lotes. Cada lote se almacena con una
+     * única consulta XQuery en el servidor, en lugar de una llamada por tarea.
+     * Como en crearTarea, una tarea cuyo ID ya existe no se guarda y su
+     * resultado es false; la tarea existente no se modifica.
+     * @param tareas Tareas a crear
+     * @return Lista con el resultado de cada tarea, en el mismo orden de entrada
+     */
+    public List<Boolean> crearTareas(List<Tarea> tareas) {
+        return almacenarPorLotes(tareas, false);
+    }
+    
+    /**
+     * Guarda varias tareas por lotes, como crearTareas, pero sustituyendo por
+     * completo las que ya existen con el mismo ID (alta o sustitución). Repetir
+     * la misma llamada deja la colección igual, por lo que sirve para
+     * importaciones que pueden reintentarse.
+     * @param tareas Tareas a guardar
+     * @return Lista con el resultado de cada tarea, en el mismo orden de entrada
+     */
+    public List<Boolean> guardarTareas(List<Tarea> tareas) {
+        return almacenarPorLotes(tareas, true);
+    }
+    
+    private List<Boolean> almacenarPorLotes(List<Tarea> tareas, boolean sustituir) {
+        List<Boolean> resultados = new ArrayList<>(tareas.size());
+        
+        for (int inicio = 0; inicio < tareas.size(); inicio += tamanoLote) {
+            List<Tarea> lote = tareas.subList(inicio, Math.min(inicio + tamanoLote, tareas.size()));
+            resultados.addAll(almacenarLote(lote, sustituir));
+        }
+        
+        return resultados;
+    }
+    
+    /**
+     * Almacena un lote de tareas en una sola ida y vuelta al servidor
+     * @param lote Tareas del lote
+     * @param sustituir true para sustituir las tareas existentes, false para rechazarlas
+     * @return Resultado de cada tarea del lote
+     */
+    private List<Boolean> almacenarLote(List<Tarea> lote, boolean sustituir) {
+        List<Boolean> resultados = new ArrayList<>(lote.size());
+        
+        // Generar IDs y serializar el lote completo en un único documento,
+        // con el buffer dimensionado de antemano para no tener que ampliarlo
+        StringBuilder xml = new StringBuilder(lote.size() * TAMANO_ESTIMADO_TAREA);
+        xml.append("<tareas>");
+        for (Tarea tarea : lote) {
+            if (tarea.getId() == null || tarea.getId().isEmpty()) {
+                tarea.setId(UUID.randomUUID().toString());
+            }
+            EscritorXMLTareas.escribirTarea(xml, tarea);
+        }
+        xml.append("</tareas>");
+        
+        String coleccion = conectorBD.getColeccionBase();
+        String guardar = "(" + estrategia.expresionGuardar(coleccion) + ", 'ok')[last()]";
+        String consulta =
+            "declare variable $lote external;\n" +
+            "for $tarea in parse-xml($lote)/tareas/tarea\n" +
+            "let $id := string($tarea/id)\n" +
+            "return\n" +
+            "    try {\n" +
+            (sustituir ? "        " + guardar + "\n" :
+            "        if (exists(" + estrategia.expresionTarea(coleccion) + "))\n" +
+            "        then 'error: ya existe una tarea con ID ' || $id\n" +
+            "        else " + guardar + "\n") +
+            "    } catch * {\n" +
+            "        'error: ' || $err:description\n" +
+            "    }";
+        
+        try {
+            int correctas = conColeccion(sustituir ? "guardarTareas" : "crearTareas", (col, consultas) -> {
+                registrarEnvio(xml.length());
+                ResourceSet resultado = consultas.ejecutar(consulta, Map.of("lote", xml.toString()));
+                
+                int almacenadas = 0;
+                ResourceIterator iterator = resultado.getIterator();
+                while (iterator.hasMoreResources()) {
+                    String estado = iterator.nextResource().getContent().toString();
+                    boolean correcta = "ok".equals(estado);
+                    if (!correcta) {
+                        System.err.println("Error al guardar tarea del lote: " + estado);
+                    } else {
+                        almacenadas++;
+                    }
+                    resultados.add(correcta);
+                }
+                return almacenadas;
+            });
+            
+            System.out.println("Lote almacenado: " + correctas + "/" + lote.size() + " tareas");
+            for (int i = 0; i < resultados.size(); i++) {
+                if (resultados.get(i)) {
+                    notificarGuardada(lote.get(i));
+                }
+            }
+            
+        } catch (XMLDBException e) {
+            System.err.println("Error al crear lote de tareas: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        // Completar con fallos si el servidor no devolvió resultado para todas
+        while (resultados.size() < lote.size()) {
+            resultados.add(false);
+        }
+        
+        return resultados;
+    }
+    
     /**
      * Obtiene todas las tareas de la base de datos
      * @return Lista de tareas
@@ -71,31 +263,484 @@ public class GestorTareas {
         List<Tarea> tareas = new ArrayList<>();
         
         try {
-            Collection col = conectorBD.getColeccion();
-            
             // Consulta XPath para obtener todas las tareas
-            XPathQueryService service = (XPathQueryService) col.getService("XPathQueryService", "1.0");
-            ResourceSet resultado = service.query("//tarea");
+            conColeccion("obtenerTodasLasTareas", (col, consultas) -> {
+                ResourceSet resultado = consultas.ejecutar(
+                    todasLasTareas());
+                leerTareas(resultado, tareas);
+                return null;
+            });
+            
+            System.out.println("Tareas recuperadas: " + tareas.size());
             
+        } catch (XMLDBException e) {
+            System.err.println("Error al obtener tareas: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return tareas;
+    }
+    
+    /**
+     * Obtiene una página de tareas. El recorte se hace en el servidor con
+     * subsequence(), por lo que solo se transfieren las tareas pedidas.
+     * @param offset Posición de la primera tarea (desde 0)
+     * @param limite Número máximo de tareas a devolver
+     * @return Lista de tareas de la página
+     */
+    public List<Tarea> obtenerTareas(int offset, int limite) {
+        if (offset < 0 || limite < 0) {
+            throw new IllegalArgumentException("offset y limite no pueden ser negativos");
+        }
+        
+        List<Tarea> tareas = new ArrayList<>(Math.min(limite, 1000));
+        
+        String consulta =
+            "declare variable $inicio external;\n" +
+            "declare variable $cantidad external;\n" +
+            "subsequence(" + todasLasTareas() + ", $inicio, $cantidad)";
+        
+        try {
+            conColeccion("obtenerTareas", (col, consultas) -> {
+                ResourceSet resultado = consultas.ejecutar(consulta,
+                    Map.of("inicio", offset + 1, "cantidad", limite));
+                leerTareas(resultado, tareas);
+                return null;
+            });
+            
+        } catch (XMLDBException e) {
+            System.err.println("Error al obtener página de tareas: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return tareas;
+    }
+    
+    /**
+     * Obtiene todas las tareas como un Stream perezoso. Cada tarea se pide al
+     * servidor solo cuando se consume, y el resultado de la consulta se libera
+     * al cerrar el Stream, por lo que debe usarse con try-with-resources.
+     * Un error de la base de datos no se confunde con el final del Stream:
+     * tanto la consulta como la lectura de cada tarea lanzan ErrorLecturaTareas.
+     * @return Stream de tareas
+     * @throws ErrorLecturaTareas Si falla la consulta
+     */
+    public Stream<Tarea> streamTareas() {
+        MetricaOperacion metrica = metricas.operacion("streamTareas");
+        long inicio = System.nanoTime();
+        Collection col = null;
+        try {
+            // La colección queda prestada al Stream hasta que se cierra
+            col = conectorBD.tomarColeccion();
+            Collection prestada = col;
+            ResourceSet resultado = getCacheConsultas(col).ejecutar(
+                todasLasTareas());
             ResourceIterator iterator = resultado.getIterator();
-            while (iterator.hasMoreResources()) {
-                XMLResource recurso = (XMLResource) iterator.nextResource();
-                Tarea tarea = xmlToTarea(recurso.getContent().toString());
-                if (tarea != null) {
-                    tareas.add(tarea);
+            // La colección se libera una sola vez: al fallar la lectura o al cerrar
+            AtomicBoolean liberada = new AtomicBoolean();
+            
+            Spliterator<Tarea> tareas = new Spliterators.AbstractSpliterator<Tarea>(
+                    resultado.getSize(), Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Tarea> accion) {
+                    try {
+                        while (iterator.hasMoreResources()) {
+                            Resource recurso = iterator.nextResource();
+                            Tarea tarea = xmlToTarea((XMLResource) recurso);
+                            metrica.sumarDocumentos(1);
+                            if (recurso instanceof EXistResource) {
+                                ConectorBD.limpiarRecursos((EXistResource) recurso);
+                            }
+                            if (tarea != null) {
+                                accion.accept(tarea);
+                                return true;
+                            }
+                        }
+                        return false;
+                    } catch (XMLDBException e) {
+                        if (liberada.compareAndSet(false, true)) {
+                            conectorBD.invalidarColeccion(prestada);
+                        }
+                        throw new ErrorLecturaTareas("Error al leer tarea del stream: " + e.getMessage(), e);
+                    }
                 }
-            }
+            };
+            
+            // La latencia registrada es la de lanzar la consulta; la lectura es perezosa
+            metrica.registrar(inicio, true);
+            return StreamSupport.stream(tareas, false).onClose(() -> {
+                if (!liberada.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    resultado.clear();
+                    conectorBD.devolverColeccion(prestada);
+                } catch (XMLDBException e) {
+                    System.err.println("Error al liberar el resultado: " + e.getMessage());
+                    conectorBD.invalidarColeccion(prestada);
+                }
+            });
+            
+        } catch (XMLDBException e) {
+            metrica.registrar(inicio, false);
+            conectorBD.invalidarColeccion(col);
+            throw new ErrorLecturaTareas("Error al obtener tareas: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Obtiene el listado de tareas para mostrar en tabla. La proyección se hace
+     * en el servidor y el resultado llega en un único elemento, por lo que las
+     * tareas devueltas solo incluyen id, título, estado, prioridad y fecha de
+     * vencimiento (la descripción queda a null).
+     * @return Lista de tareas con los campos del listado
+     */
+    public List<Tarea> obtenerListadoTareas() {
+        List<Tarea> tareas = new ArrayList<>();
+        
+        String consulta =
+            "<tareas>{\n" +
+            "    for $t in " + todasLasTareas() + "\n" +
+            "    return <tarea>{ $t/id, $t/titulo, $t/estado, $t/prioridad, $t/fechaVencimiento }</tarea>\n" +
+            "}</tareas>";
+        
+        try {
+            conColeccion("obtenerListadoTareas", (col, consultas) -> {
+                ResourceSet resultado = consultas.ejecutar(consulta);
+                
+                if (resultado.getSize() > 0) {
+                    XMLResource recurso = (XMLResource) resultado.getResource(0);
+                    leerContenido(recurso, new LectorTareasSAX(tareas::add));
+                }
+                return null;
+            });
             
             System.out.println("Tareas recuperadas: " + tareas.size());
             
         } catch (XMLDBException e) {
-            System.err.println("Error al obtener tareas: " + e.getMessage());
+            System.err.println("Error al obtener listado de tareas: " + e.getMessage());
             e.printStackTrace();
         }
         
         return tareas;
     }
     
+    /**
+     * Obtiene una página del listado de tareas con la misma proyección que
+     * obtenerListadoTareas(), recortada en el servidor con subsequence()
+     * @param offset Posición de la primera tarea (desde 0)
+     * @param limite Número máximo de tareas a devolver
+     * @return Lista de tareas de la página con los campos del listado
+     */
+    public List<Tarea> obtenerListadoTareas(int offset, int limite) {
+        return obtenerListadoTareas(new FiltroTareas(), offset, limite);
+    }
+    
+    /**
+     * Obtiene una página del listado de tareas filtrada y ordenada. El filtro,
+     * la ordenación y el recorte se resuelven en una única consulta en el
+     * servidor, por lo que solo se transfieren las filas de la página.
+     * @param filtro Criterios de filtrado y ordenación
+     * @param offset Posición de la primera tarea (desde 0)
+     * @param limite Número máximo de tareas a devolver
+     * @return Lista de tareas de la página con los campos del listado (vacía si hay error)
+     */
+    public List<Tarea> obtenerListadoTareas(FiltroTareas filtro, int offset, int limite) {
+        try {
+            return obtenerPaginaListado(filtro, offset, limite);
+        } catch (ErrorLecturaTareas e) {
+            System.err.println(e.getMessage());
+            e.getCause().printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Igual que obtenerListadoTareas(filtro, offset, limite), pero un error de
+     * la base de datos se lanza en lugar de devolver una página vacía, para
+     * quien guarda las páginas y tiene que distinguir una página sin tareas
+     * de una que no se pudo leer
+     * @param filtro Criterios de filtrado y ordenación
+     * @param offset Posición de la primera tarea (desde 0)
+     * @param limite Número máximo de tareas a devolver
+     * @return Lista de tareas de la página con los campos del listado
+     * @throws ErrorLecturaTareas Si falla la consulta
+     */
+    public List<Tarea> obtenerPaginaListado(FiltroTareas filtro, int offset, int limite) {
+        if (offset < 0 || limite < 0) {
+            throw new IllegalArgumentException("offset y limite no pueden ser negativos");
+        }
+        
+        List<Tarea> tareas = new ArrayList<>(Math.min(limite, 1000));
+        
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("inicio", offset + 1);
+        variables.put("cantidad", limite);
+        
+        StringBuilder consulta = new StringBuilder();
+        consulta.append("declare variable $inicio external;\n");
+        consulta.append("declare variable $cantidad external;\n");
+        String seleccion = seleccionFiltrada(filtro, consulta, variables);
+        
+        consulta.append("let $seleccion :=\n");
+        if (filtro.getOrdenarPor() != null) {
+            consulta.append("    for $t in ").append(seleccion).append("\n");
+            consulta.append("    order by ").append(filtro.getOrdenarPor().getExpresion())
+                    .append(filtro.isDescendente() ? " descending" : " ascending").append("\n");
+            consulta.append("    return $t\n");
+        } else if (filtro.getTexto() != null) {
+            // Búsqueda de texto sin otra ordenación: por relevancia
+            consulta.append("    for $t in ").append(seleccion).append("\n");
+            consulta.append("    order by ft:score($t) descending\n");
+            consulta.append("    return $t\n");
+        } else {
+            consulta.append("    ").append(seleccion).append("\n");
+        }
+        consulta.append("return <tareas>{\n");
+        consulta.append("    for $t in subsequence($seleccion, $inicio, $cantidad)\n");
+        consulta.append("    return <tarea>{ $t/id, $t/titulo, $t/estado, $t/prioridad, $t/fechaVencimiento }</tarea>\n");
+        consulta.append("}</tareas>");
+        
+        try {
+            conColeccion("obtenerListadoTareas", (col, consultas) -> {
+                ResourceSet resultado = consultas.ejecutar(consulta.toString(), variables);
+                
+                if (resultado.getSize() > 0) {
+                    XMLResource recurso = (XMLResource) resultado.getResource(0);
+                    leerContenido(recurso, new LectorTareasSAX(tareas::add));
+                }
+                return null;
+            });
+            
+        } catch (XMLDBException e) {
+            throw new ErrorLecturaTareas("Error al obtener página del listado: " + e.getMessage(), e);
+        }
+        
+        return tareas;
+    }
+    
+    /**
+     * Cuenta las tareas de la colección sin transferirlas
+     * @return Número de tareas, o -1 si hay error
+     */
+    public int contarTareas() {
+        return contarTareas(new FiltroTareas());
+    }
+    
+    /**
+     * Cuenta en el servidor las tareas que cumplen un filtro
+     * @param filtro Criterios de filtrado (la ordenación se ignora)
+     * @return Número de tareas, o -1 si hay error
+     */
+    public int contarTareas(FiltroTareas filtro) {
+        Map<String, Object> variables = new HashMap<>();
+        StringBuilder consulta = new StringBuilder();
+        String seleccion = seleccionFiltrada(filtro, consulta, variables);
+        consulta.append("count(").append(seleccion).append(")");
+        
+        try {
+            return conColeccion("contarTareas", (col, consultas) -> {
+                ResourceSet resultado = consultas.ejecutar(consulta.toString(), variables);
+                return resultado.getSize() > 0 ?
+                    Integer.parseInt(resultado.getResource(0).getContent().toString()) : 0;
+            });
+            
+        } catch (XMLDBException e) {
+            System.err.println("Error al contar tareas: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+    
+    /**
+     * Busca tareas por texto en título y descripción usando el índice de
+     * texto completo. Los resultados llegan ordenados por relevancia.
+     * @param texto Palabras a buscar (todas deben aparecer; la última admite prefijo)
+     * @param offset Posición del primer resultado (desde 0)
+     * @param limite Número máximo de resultados
+     * @return Página de tareas con los campos del listado
+     */
+    public List<Tarea> buscarTareas(String texto, int offset, int limite) {
+        FiltroTareas filtro = new FiltroTareas();
+        filtro.setTexto(texto);
+        if (filtro.getTexto() == null) {
+            return new ArrayList<>();
+        }
+        return obtenerListadoTareas(filtro, offset, limite);
+    }
+    
+    /**
+     * Busca tareas por texto y devuelve la primera página de resultados
+     * @param texto Palabras a buscar
+     * @return Las tareas más relevantes con los campos del listado
+     */
+    public List<Tarea> buscarTareas(String texto) {
+        return buscarTareas(texto, 0, TAMANO_PAGINA_BUSQUEDA);
+    }
+    
+    /**
+     * Convierte el texto escrito por el usuario en una consulta Lucene:
+     * escapa los caracteres especiales de cada palabra y convierte la última
+     * en un prefijo, para que la búsqueda funcione mientras se escribe
+     * @param texto Texto del usuario
+     * @return Consulta Lucene
+     */
+    private static String consultaTextoCompleto(String texto) {
+        StringBuilder consulta = new StringBuilder();
+        String[] palabras = texto.trim().split("\\s+");
+        
+        for (int i = 0; i < palabras.length; i++) {
+            if (i > 0) {
+                consulta.append(' ');
+            }
+            for (char c : palabras[i].toCharArray()) {
+                if ("+-&|!(){}[]^\"~*?:\\/".indexOf(c) >= 0) {
+                    consulta.append('\\');
+                }
+                consulta.append(c);
+            }
+        }
+        
+        return consulta.append('*').toString();
+    }
+    
+    /**
+     * Construye la expresión que selecciona las tareas de un filtro. Cada
+     * criterio presente se convierte en un predicado sobre una variable
+     * externa, que se declara en la consulta y se añade a las variables.
+     * @param filtro Criterios de filtrado
+     * @param declaraciones Consulta en construcción donde se declaran las variables
+     * @param variables Valores de las variables externas
+     * @return Expresión XPath con los predicados del filtro
+     */
+    private String seleccionFiltrada(FiltroTareas filtro, StringBuilder declaraciones,
+                                     Map<String, Object> variables) {
+        StringBuilder seleccion = new StringBuilder();
+        seleccion.append(todasLasTareas());
+        
+        if (filtro.getTexto() != null) {
+            declaraciones.append("declare variable $texto external;\n");
+            declaraciones.append("declare variable $opciones := ")
+                         .append("<options><default-operator>and</default-operator></options>;\n");
+            variables.put("texto", consultaTextoCompleto(filtro.getTexto()));
+            seleccion.append("[ft:query(titulo, $texto, $opciones) or ft:query(descripcion, $texto, $opciones)]");
+        }
+        if (filtro.getEstado() != null) {
+            declaraciones.append("declare variable $estado external;\n");
+            variables.put("estado", filtro.getEstado());
+            seleccion.append("[estado = $estado]");
+        }
+        if (filtro.getPrioridad() != null) {
+            declaraciones.append("declare variable $prioridad external;\n");
+            variables.put("prioridad", filtro.getPrioridad());
+            seleccion.append("[prioridad = $prioridad]");
+        }
+        if (filtro.getVencimientoDesde() != null) {
+            declaraciones.append("declare variable $desde external;\n");
+            variables.put("desde", filtro.getVencimientoDesde().toString());
+            seleccion.append("[fechaVencimiento ge xs:date($desde)]");
+        }
+        if (filtro.getVencimientoHasta() != null) {
+            declaraciones.append("declare variable $hasta external;\n");
+            variables.put("hasta", filtro.getVencimientoHasta().toString());
+            seleccion.append("[fechaVencimiento le xs:date($hasta)]");
+        }
+        
+        return seleccion.toString();
+    }
+    
+    /**
+     * Calcula en el servidor, con una sola consulta, el resumen de la colección:
+     * recuentos por estado y prioridad, tareas vencidas y tareas que vencen en
+     * los próximos siete días. Solo viaja el resumen, no las tareas.
+     * @return Resumen de las tareas, o null si hay error
+     */
+    public ResumenTareas obtenerResumen() {
+        LocalDate hoy = LocalDate.now();
+        String consulta =
+            "declare variable $hoy external;\n" +
+            "declare variable $semana external;\n" +
+            "let $tareas := " + todasLasTareas() + "\n" +
+            "let $pendientes := $tareas[not(estado = 'completada')]\n" +
+            "return\n" +
+            "<resumen total=\"{ count($tareas) }\"\n" +
+            "         vencidas=\"{ count($pendientes[fechaVencimiento lt xs:date($hoy)]) }\"\n" +
+            "         semana=\"{ count($pendientes[fechaVencimiento ge xs:date($hoy)][fechaVencimiento lt xs:date($semana)]) }\">{\n" +
+            "    for $t in $tareas\n" +
+            "    group by $estado := string($t/estado)\n" +
+            "    return <estado valor=\"{ $estado }\" total=\"{ count($t) }\"/>,\n" +
+            "    for $t in $tareas\n" +
+            "    group by $prioridad := string($t/prioridad)\n" +
+            "    return <prioridad valor=\"{ $prioridad }\" total=\"{ count($t) }\"/>\n" +
+            "}</resumen>";
+        
+        try {
+            return conColeccion("obtenerResumen", (col, consultas) -> {
+                ResourceSet resultado = consultas.ejecutar(consulta,
+                    Map.of("hoy", hoy.toString(), "semana", hoy.plusDays(7).toString()));
+                if (resultado.getSize() == 0) {
+                    return null;
+                }
+                
+                Node nodo = ((XMLResource) resultado.getResource(0)).getContentAsDOM();
+                Element raiz = nodo instanceof Document ?
+                    ((Document) nodo).getDocumentElement() : (Element) nodo;
+                
+                Map<String, Integer> porEstado = new LinkedHashMap<>();
+                Map<String, Integer> porPrioridad = new LinkedHashMap<>();
+                NodeList grupos = raiz.getChildNodes();
+                for (int i = 0; i < grupos.getLength(); i++) {
+                    if (grupos.item(i) instanceof Element) {
+                        Element grupo = (Element) grupos.item(i);
+                        Map<String, Integer> destino =
+                            "estado".equals(grupo.getTagName()) ? porEstado : porPrioridad;
+                        destino.put(grupo.getAttribute("valor"), Integer.parseInt(grupo.getAttribute("total")));
+                    }
+                }
+                
+                return new ResumenTareas(hoy,
+                    Integer.parseInt(raiz.getAttribute("total")),
+                    Integer.parseInt(raiz.getAttribute("vencidas")),
+                    Integer.parseInt(raiz.getAttribute("semana")),
+                    porEstado, porPrioridad);
+            });
+            
+        } catch (XMLDBException e) {
+            System.err.println("Error al obtener el resumen de tareas: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+    
+    /**
+     * Obtiene los IDs de todas las tareas, sin descargar su contenido
+     * @return Lista de IDs
+     */
+    public List<String> obtenerIdsTareas() {
+        List<String> ids = new ArrayList<>();
+        
+        try {
+            conColeccion("obtenerIdsTareas", (col, consultas) -> {
+                // Un resultado por ID: un separador podría aparecer dentro de algún ID
+                ResourceSet resultado = consultas.ejecutar(todasLasTareas() + "/id/string()");
+                ResourceIterator iterator = resultado.getIterator();
+                while (iterator.hasMoreResources()) {
+                    String id = iterator.nextResource().getContent().toString();
+                    if (!id.isEmpty()) {
+                        ids.add(id);
+                    }
+                }
+                return null;
+            });
+            
+        } catch (XMLDBException e) {
+            System.err.println("Error al obtener IDs de tareas: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return ids;
+    }
+    
     /**
      * Busca una tarea por su ID
      * @param id ID de la tarea
@@ -103,13 +748,10 @@ public class GestorTareas {
      */
     public Tarea buscarTareaPorId(String id) {
         try {
-            Collection col = conectorBD.getColeccion();
-            Resource recurso = col.getResource(id + ".xml");
-            
-            if (recurso != null) {
-                XMLResource xmlRecurso = (XMLResource) recurso;
-                return xmlToTarea(xmlRecurso.getContent().toString());
-            }
+            return conColeccion("buscarTareaPorId", (col, consultas) -> {
+                XMLResource recurso = estrategia.leer(col, consultas, id);
+                return recurso != null ? xmlToTarea(recurso) : null;
+            });
             
         } catch (XMLDBException e) {
             System.err.println("Error al buscar tarea: " + e.getMessage());
@@ -119,27 +761,71 @@ public class GestorTareas {
     }
     
     /**
-     * Actualiza una tarea existente
+     * Actualiza una tarea existente. Solo se modifican en el servidor los
+     * elementos cuyo valor ha cambiado, mediante XQuery Update en una única
+     * consulta, sin eliminar ni volver a crear el documento.
      * @param tarea Tarea con los datos actualizados
      * @return true si se actualizó correctamente
      */
     public boolean actualizarTarea(Tarea tarea) {
+        String consulta =
+            "declare variable $id external;\n" +
+            "declare variable $titulo external;\n" +
+            "declare variable $descripcion external;\n" +
+            "declare variable $estado external;\n" +
+            "declare variable $prioridad external;\n" +
+            "declare variable $fechaVencimiento external;\n" +
+            "declare function local:fijar($tarea as element(tarea), $nombre as xs:string, $valor as xs:string) {\n" +
+            "    let $elemento := $tarea/*[local-name() = $nombre]\n" +
+            "    return\n" +
+            "        if (empty($elemento)) then\n" +
+            "            if ($valor = '') then () else update insert element { $nombre } { $valor } into $tarea\n" +
+            "        else if ($valor = '' and $nombre = 'fechaVencimiento') then\n" +
+            "            update delete $elemento\n" +
+            "        else if (string($elemento) = $valor) then ()\n" +
+            "        else update value $elemento with $valor\n" +
+            "};\n" +
+            "let $tarea := (" + estrategia.expresionTarea(conectorBD.getColeccionBase()) + ")[1]\n" +
+            "return\n" +
+            "    if (empty($tarea)) then false()\n" +
+            "    else (\n" +
+            "        local:fijar($tarea, 'titulo', $titulo),\n" +
+            "        local:fijar($tarea, 'descripcion', $descripcion),\n" +
+            "        local:fijar($tarea, 'estado', $estado),\n" +
+            "        local:fijar($tarea, 'prioridad', $prioridad),\n" +
+            "        local:fijar($tarea, 'fechaVencimiento', $fechaVencimiento),\n" +
+            "        true()\n" +
+            "    )";
+        
         try {
-            Collection col = conectorBD.getColeccion();
+            Map<String, Object> variables = Map.of(
+                "id", tarea.getId(),
+                "titulo", valorOVacio(tarea.getTitulo()),
+                "descripcion", valorOVacio(tarea.getDescripcion()),
+                "estado", valorOVacio(tarea.getEstado()),
+                "prioridad", valorOVacio(tarea.getPrioridad()),
+                "fechaVencimiento", tarea.getFechaVencimiento() != null ?
+                    tarea.getFechaVencimiento().toString() : "");
             
-            // Eliminar el recurso anterior
-            Resource recursoAnterior = col.getResource(tarea.getId() + ".xml");
-            if (recursoAnterior != null) {
-                col.removeResource(recursoAnterior);
-            }
-            
-            // Crear el nuevo recurso con los datos actualizados
-            String xml = tareaToXML(tarea);
-            XMLResource recurso = (XMLResource) col.createResource(tarea.getId() + ".xml", "XMLResource");
-            recurso.setContent(xml);
-            col.storeResource(recurso);
+            conColeccion("actualizarTarea", (col, consultas) -> {
+                for (Object valor : variables.values()) {
+                    registrarEnvio(valor.toString().length());
+                }
+                ResourceSet resultado = consultas.ejecutar(consulta, variables);
+                boolean existia = resultado.getSize() > 0 &&
+                    "true".equals(resultado.getResource(0).getContent().toString());
+                
+                if (!existia) {
+                    // La tarea no existe en el servidor: se almacena completa
+                    String xml = tareaToXML(tarea);
+                    registrarEnvio(xml.length());
+                    estrategia.guardar(col, consultas, tarea, xml);
+                }
+                return null;
+            });
             
             System.out.println("Tarea actualizada: " + tarea.getId());
+            notificarGuardada(tarea);
             return true;
             
         } catch (XMLDBException e) {
@@ -156,17 +842,16 @@ public class GestorTareas {
      */
     public boolean eliminarTarea(String id) {
         try {
-            Collection col = conectorBD.getColeccion();
-            Resource recurso = col.getResource(id + ".xml");
+            boolean eliminada = conColeccion("eliminarTarea", (col, consultas) ->
+                estrategia.eliminar(col, consultas, id));
             
-            if (recurso != null) {
-                col.removeResource(recurso);
+            if (eliminada) {
                 System.out.println("Tarea eliminada: " + id);
-                return true;
+                notificarEliminada(id);
             } else {
                 System.err.println("Tarea no encontrada: " + id);
-                return false;
             }
+            return eliminada;
             
         } catch (XMLDBException e) {
             System.err.println("Error al eliminar tarea: " + e.getMessage());
@@ -175,6 +860,40 @@ public class GestorTareas {
         }
     }
     
+    /**
+     * Obtiene las tareas no completadas que tienen fecha de vencimiento, con
+     * la proyección del listado. El filtro se resuelve en el servidor, por lo
+     * que solo se transfieren las tareas con un vencimiento pendiente.
+     * @return Tareas con vencimiento pendiente (vacía si hay error)
+     */
+    public List<Tarea> obtenerVencimientosPendientes() {
+        List<Tarea> tareas = new ArrayList<>();
+        
+        String consulta =
+            "<tareas>{\n" +
+            "    for $t in " + todasLasTareas() + "[fechaVencimiento][not(estado = 'completada')]\n" +
+            "    return <tarea>{ $t/id, $t/titulo, $t/estado, $t/prioridad, $t/fechaVencimiento }</tarea>\n" +
+            "}</tareas>";
+        
+        try {
+            conColeccion("obtenerVencimientosPendientes", (col, consultas) -> {
+                ResourceSet resultado = consultas.ejecutar(consulta);
+                
+                if (resultado.getSize() > 0) {
+                    XMLResource recurso = (XMLResource) resultado.getResource(0);
+                    leerContenido(recurso, new LectorTareasSAX(tareas::add));
+                }
+                return null;
+            });
+            
+        } catch (XMLDBException e) {
+            System.err.println("Error al obtener vencimientos pendientes: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        return tareas;
+    }
+    
     /**
      * Obtiene tareas filtradas por estado
      * @param estado Estado a filtrar ("pendiente", "en_proceso", "completada")
@@ -184,20 +903,15 @@ public class GestorTareas {
         List<Tarea> tareasFiltradas = new ArrayList<>();
         
         try {
-            Collection col = conectorBD.getColeccion();
-            XPathQueryService service = (XPathQueryService) col.getService("XPathQueryService", "1.0");
-            
-            String query = "//tarea[estado='" + estado + "']";
-            ResourceSet resultado = service.query(query);
-            
-            ResourceIterator iterator = resultado.getIterator();
-            while (iterator.hasMoreResources()) {
-                XMLResource recurso = (XMLResource) iterator.nextResource();
-                Tarea tarea = xmlToTarea(recurso.getContent().toString());
-                if (tarea != null) {
-                    tareasFiltradas.add(tarea);
-                }
-            }
+            // Consulta limitada a la colección para usar el índice de rango sobre estado
+            String query =
+                "declare variable $estado external;\n" +
+                todasLasTareas() + "[estado = $estado]";
+            conColeccion("obtenerTareasPorEstado", (col, consultas) -> {
+                ResourceSet resultado = consultas.ejecutar(query, Map.of("estado", estado));
+                leerTareas(resultado, tareasFiltradas);
+                return null;
+            });
             
         } catch (XMLDBException e) {
             System.err.println("Error al filtrar tareas: " + e.getMessage());
@@ -207,79 +921,233 @@ public class GestorTareas {
     }
     
     /**
-     * Convierte un objeto Tarea a formato XML
-     * @param tarea Objeto Tarea
-     * @return String XML
+     * Ejecuta una operación con una colección tomada del pool. Si la operación
+     * falla con XMLDBException la colección se descarta para que el siguiente
+     * préstamo abra una conexión nueva. La duración, incluida la espera por
+     * la colección, y el resultado se registran en la métrica de la operación.
+     * @param nombre Nombre de la operación en las métricas
+     * @param operacion Operación a ejecutar
+     * @return Resultado de la operación
+     * @throws XMLDBException Si hay error en la base de datos
      */
-    private String tareaToXML(Tarea tarea) {
-        StringBuilder xml = new StringBuilder();
-        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
-        xml.append("<tarea>\n");
-        xml.append("  <id>").append(tarea.getId()).append("</id>\n");
-        xml.append("  <titulo>").append(escaparXML(tarea.getTitulo())).append("</titulo>\n");
-        xml.append("  <descripcion>").append(escaparXML(tarea.getDescripcion())).append("</descripcion>\n");
-        xml.append("  <estado>").append(tarea.getEstado()).append("</estado>\n");
-        xml.append("  <prioridad>").append(tarea.getPrioridad()).append("</prioridad>\n");
-        xml.append("  <fechaCreacion>").append(tarea.getFechaCreacion()).append("</fechaCreacion>\n");
-        if (tarea.getFechaVencimiento() != null) {
-            xml.append("  <fechaVencimiento>").append(tarea.getFechaVencimiento()).append("</fechaVencimiento>\n");
+    private <T> T conColeccion(String nombre, OperacionColeccion<T> operacion) throws XMLDBException {
+        MetricaOperacion metrica = metricas.operacion(nombre);
+        long inicio = System.nanoTime();
+        boolean valida = false;
+        metricaActual.set(metrica);
+        try {
+            Collection col = conectorBD.tomarColeccion();
+            try {
+                prepararAlmacenamiento(col);
+                T resultado = operacion.ejecutar(col, getCacheConsultas(col));
+                valida = true;
+                return resultado;
+            } finally {
+                if (valida) {
+                    conectorBD.devolverColeccion(col);
+                } else {
+                    conectorBD.invalidarColeccion(col);
+                }
+            }
+        } finally {
+            metricaActual.remove();
+            metrica.registrar(inicio, valida);
         }
-        xml.append("</tarea>");
-        return xml.toString();
     }
     
     /**
-     * Convierte XML a objeto Tarea
-     * @param xml String XML
-     * @return Objeto Tarea
+     * Lee un recurso con el lector SAX y suma a la operación en curso los
+     * documentos y el texto leídos
+     * @param recurso Recurso a leer
+     * @param lector Lector de tareas
+     * @throws XMLDBException Si hay error al leer el recurso
      */
-    private Tarea xmlToTarea(String xml) {
-        try {
-            Tarea tarea = new Tarea();
-            
-            // Extraer valores usando expresiones simples
-            tarea.setId(extraerValor(xml, "id"));
-            tarea.setTitulo(extraerValor(xml, "titulo"));
-            tarea.setDescripcion(extraerValor(xml, "descripcion"));
-            tarea.setEstado(extraerValor(xml, "estado"));
-            tarea.setPrioridad(extraerValor(xml, "prioridad"));
-            
-            String fechaCreacion = extraerValor(xml, "fechaCreacion");
-            if (fechaCreacion != null && !fechaCreacion.isEmpty()) {
-                tarea.setFechaCreacion(LocalDate.parse(fechaCreacion));
+    private void leerContenido(XMLResource recurso, LectorTareasSAX lector) throws XMLDBException {
+        int tareasPrevias = lector.getTareasLeidas();
+        long caracteresPrevios = lector.getCaracteresLeidos();
+        recurso.getContentAsSAX(lector);
+        
+        MetricaOperacion metrica = metricaActual.get();
+        if (metrica != null) {
+            metrica.sumarDocumentos(lector.getTareasLeidas() - tareasPrevias);
+            metrica.sumarBytes(lector.getCaracteresLeidos() - caracteresPrevios);
+        }
+    }
+    
+    /**
+     * Suma a la operación en curso el tamaño de lo enviado al servidor
+     * @param caracteres Caracteres enviados
+     */
+    private void registrarEnvio(long caracteres) {
+        MetricaOperacion metrica = metricaActual.get();
+        if (metrica != null) {
+            metrica.sumarBytes(caracteres);
+        }
+    }
+    
+    /**
+     * Registra un oyente que recibirá las altas, modificaciones y bajas
+     * realizadas con este gestor
+     * @param oyente Oyente a registrar
+     */
+    public void agregarOyente(OyenteCambiosTareas oyente) {
+        oyentes.add(oyente);
+    }
+    
+    /**
+     * Retira un oyente registrado
+     * @param oyente Oyente a retirar
+     */
+    public void quitarOyente(OyenteCambiosTareas oyente) {
+        oyentes.remove(oyente);
+    }
+    
+    /**
+     * Avisa a los oyentes de una tarea guardada. Un error en un oyente no
+     * afecta a la operación, que ya se ha completado.
+     */
+    private void notificarGuardada(Tarea tarea) {
+        for (OyenteCambiosTareas oyente : oyentes) {
+            try {
+                oyente.tareaGuardada(tarea);
+            } catch (RuntimeException e) {
+                System.err.println("Error en oyente de cambios: " + e.getMessage());
             }
-            
-            String fechaVencimiento = extraerValor(xml, "fechaVencimiento");
-            if (fechaVencimiento != null && !fechaVencimiento.isEmpty()) {
-                tarea.setFechaVencimiento(LocalDate.parse(fechaVencimiento));
+        }
+    }
+    
+    private void notificarEliminada(String id) {
+        for (OyenteCambiosTareas oyente : oyentes) {
+            try {
+                oyente.tareaEliminada(id);
+            } catch (RuntimeException e) {
+                System.err.println("Error en oyente de cambios: " + e.getMessage());
             }
-            
-            return tarea;
-            
-        } catch (Exception e) {
-            System.err.println("Error al convertir XML a Tarea: " + e.getMessage());
-            return null;
         }
     }
     
     /**
-     * Extrae el valor de un elemento XML
-     * @param xml String XML
-     * @param tag Etiqueta a buscar
-     * @return Valor extraído
+     * Obtiene las métricas de las operaciones de este gestor
+     * @return Registro de métricas
      */
-    private String extraerValor(String xml, String tag) {
-        String inicio = "<" + tag + ">";
-        String fin = "</" + tag + ">";
-        
-        int posInicio = xml.indexOf(inicio);
-        int posFin = xml.indexOf(fin);
-        
-        if (posInicio != -1 && posFin != -1) {
-            return xml.substring(posInicio + inicio.length(), posFin).trim();
+    public MetricasTareas getMetricas() {
+        return metricas;
+    }
+    
+    /**
+     * Prepara la colección para la estrategia de almacenamiento la primera
+     * vez que se usa
+     * @param col Colección prestada
+     * @throws XMLDBException Si hay error en la base de datos
+     */
+    private void prepararAlmacenamiento(Collection col) throws XMLDBException {
+        if (!almacenamientoPreparado) {
+            synchronized (estrategia) {
+                if (!almacenamientoPreparado) {
+                    estrategia.preparar(col);
+                    almacenamientoPreparado = true;
+                }
+            }
         }
-        
-        return "";
+    }
+    
+    /**
+     * Expresión XQuery que selecciona todas las tareas de la colección
+     */
+    private String todasLasTareas() {
+        return estrategia.seleccionarTareas("collection('" + conectorBD.getColeccionBase() + "')");
+    }
+    
+    /**
+     * Obtiene la estrategia con la que se guardan las tareas
+     * @return Estrategia de almacenamiento
+     */
+    public EstrategiaAlmacenamiento getEstrategia() {
+        return estrategia;
+    }
+    
+    /**
+     * Obtiene la caché de consultas compiladas de una colección del pool
+     * @param col Colección prestada
+     * @return Caché de consultas de esa colección
+     * @throws XMLDBException Si no se puede obtener el servicio XQuery
+     */
+    private CacheConsultas getCacheConsultas(Collection col) throws XMLDBException {
+        synchronized (cachesConsultas) {
+            CacheConsultas cache = cachesConsultas.get(col);
+            if (cache == null) {
+                cache = new CacheConsultas(col);
+                cachesConsultas.put(col, cache);
+            }
+            return cache;
+        }
+    }
+    
+    /**
+     * Obtiene el total de compilaciones de consultas de las colecciones abiertas
+     * @return Compilaciones realizadas
+     */
+    public long getCompilacionesConsultas() {
+        synchronized (cachesConsultas) {
+            return cachesConsultas.values().stream().mapToLong(CacheConsultas::getCompilaciones).sum();
+        }
+    }
+    
+    /**
+     * Obtiene el total de reutilizaciones de consultas compiladas
+     * @return Aciertos de las cachés de consultas
+     */
+    public long getAciertosConsultas() {
+        synchronized (cachesConsultas) {
+            return cachesConsultas.values().stream().mapToLong(CacheConsultas::getAciertos).sum();
+        }
+    }
+    
+    /**
+     * Estima el tiempo de compilación ahorrado por las cachés de consultas
+     * @return Tiempo ahorrado en nanosegundos
+     */
+    public long getAhorroCompilacionNanos() {
+        synchronized (cachesConsultas) {
+            return cachesConsultas.values().stream().mapToLong(CacheConsultas::getAhorroEstimadoNanos).sum();
+        }
+    }
+    
+    /**
+     * Lee con un único lector SAX todas las tareas de un resultado
+     * @param resultado Resultado de una consulta que devuelve elementos tarea
+     * @param destino Lista donde se añaden las tareas
+     * @throws XMLDBException Si hay error al leer los recursos
+     */
+    private void leerTareas(ResourceSet resultado, List<Tarea> destino) throws XMLDBException {
+        LectorTareasSAX lector = new LectorTareasSAX(destino::add);
+        ResourceIterator iterator = resultado.getIterator();
+        while (iterator.hasMoreResources()) {
+            leerContenido((XMLResource) iterator.nextResource(), lector);
+        }
+    }
+    
+    // Conversión entre Tarea y XML: visible en el paquete para los benchmarks
+    
+    /**
+     * Convierte un objeto Tarea a formato XML
+     * @param tarea Objeto Tarea
+     * @return String XML
+     */
+    String tareaToXML(Tarea tarea) {
+        return EscritorXMLTareas.aDocumento(tarea);
+    }
+    
+    /**
+     * Convierte un recurso XML a objeto Tarea leyendo su contenido en streaming
+     * @param recurso Recurso XML con una tarea
+     * @return Objeto Tarea o null si el contenido no es válido
+     * @throws XMLDBException Si hay error al leer el recurso
+     */
+    Tarea xmlToTarea(XMLResource recurso) throws XMLDBException {
+        Tarea[] leida = new Tarea[1];
+        leerContenido(recurso, new LectorTareasSAX(tarea -> leida[0] = tarea));
+        return leida[0];
     }
     
     /**
@@ -287,12 +1155,35 @@ public class GestorTareas {
      * @param texto Texto a escapar
      * @return Texto escapado
      */
-    private String escaparXML(String texto) {
-        if (texto == null) return "";
-        return texto.replace("&", "&amp;")
-                   .replace("<", "&lt;")
-                   .replace(">", "&gt;")
-                   .replace("\"", "&quot;")
-                   .replace("'", "&apos;");
+    String escaparXML(String texto) {
+        return EscritorXMLTareas.escapar(texto);
+    }
+    
+    /**
+     * Devuelve el texto indicado o una cadena vacía si es null
+     * @param texto Texto original
+     * @return Texto no nulo
+     */
+    private String valorOVacio(String texto) {
+        return texto != null ? texto : "";
+    }
+    
+    /**
+     * Obtiene el número de tareas que se envían por lote en crearTareas
+     * @return Tamaño del lote
+     */
+    public int getTamanoLote() {
+        return tamanoLote;
+    }
+    
+    /**
+     * Establece el número de tareas que se envían por lote en crearTareas
+     * @param tamanoLote Tamaño del lote (mayor que cero)
+     */
+    public void setTamanoLote(int tamanoLote) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero");
+        }
+        this.tamanoLote = tamanoLote;
     }
 }
\ No newline at end of file
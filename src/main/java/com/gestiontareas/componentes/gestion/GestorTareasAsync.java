@@ -0,0 +1,150 @@
+package com.gestiontareas.componentes.gestion;
+
+import com.gestiontareas.modelo.Tarea;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fachada asíncrona sobre GestorTareas.
+ * Cada operación se ejecuta en un pool de hilos acotado y devuelve un
+ * CompletableFuture, de modo que quien la llama (por ejemplo, el hilo de
+ * eventos de Swing) no queda bloqueado durante la ida y vuelta al servidor.
+ *
+ * La cola de operaciones pendientes está acotada. Si está llena, o la fachada
+ * ya se ha cerrado, la operación no se lanza y el futuro se devuelve ya
+ * completado con RejectedExecutionException; los métodos nunca lanzan la
+ * excepción en el hilo que los llama.
+ */
+public class GestorTareasAsync implements AutoCloseable {
+    
+    private static final int CAPACIDAD_COLA = 256;
+    
+    private final GestorTareas gestorTareas;
+    private final ExecutorService executor;
+    
+    /**
+     * Constructor de la fachada
+     * @param gestorTareas Gestor sobre el que se ejecutan las operaciones
+     * @param hilos Número de hilos de trabajo
+     */
+    public GestorTareasAsync(GestorTareas gestorTareas, int hilos) {
+        this.gestorTareas = gestorTareas;
+        
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(CAPACIDAD_COLA),
+            tarea -> {
+                Thread hilo = new Thread(tarea, "gestor-tareas-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+    }
+    
+    /**
+     * Ejecuta cualquier operación en el pool de hilos de la fachada
+     * @param operacion Operación a ejecutar
+     * @return Futuro con el resultado, o completado con RejectedExecutionException
+     *         si la cola está llena o la fachada está cerrada
+     */
+    public <T> CompletableFuture<T> ejecutar(Supplier<T> operacion) {
+        try {
+            return CompletableFuture.supplyAsync(operacion, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    // Operaciones de GestorTareas ejecutadas en segundo plano
+    public CompletableFuture<Boolean> crearTarea(Tarea tarea) {
+        return ejecutar(() -> gestorTareas.crearTarea(tarea));
+    }
+    
+    public CompletableFuture<List<Boolean>> crearTareas(List<Tarea> tareas) {
+        return ejecutar(() -> gestorTareas.crearTareas(tareas));
+    }
+    
+    public CompletableFuture<List<Boolean>> guardarTareas(List<Tarea> tareas) {
+        return ejecutar(() -> gestorTareas.guardarTareas(tareas));
+    }
+    
+    public CompletableFuture<List<Tarea>> obtenerTodasLasTareas() {
+        return ejecutar(gestorTareas::obtenerTodasLasTareas);
+    }
+    
+    public CompletableFuture<List<Tarea>> obtenerListadoTareas() {
+        return ejecutar(gestorTareas::obtenerListadoTareas);
+    }
+    
+    public CompletableFuture<List<Tarea>> obtenerListadoTareas(int offset, int limite) {
+        return ejecutar(() -> gestorTareas.obtenerListadoTareas(offset, limite));
+    }
+    
+    public CompletableFuture<List<Tarea>> obtenerListadoTareas(FiltroTareas filtro, int offset, int limite) {
+        return ejecutar(() -> gestorTareas.obtenerListadoTareas(filtro, offset, limite));
+    }
+    
+    // Termina con ErrorLecturaTareas si falla la consulta, en lugar de con una página vacía
+    public CompletableFuture<List<Tarea>> obtenerPaginaListado(FiltroTareas filtro, int offset, int limite) {
+        return ejecutar(() -> gestorTareas.obtenerPaginaListado(filtro, offset, limite));
+    }
+    
+    public CompletableFuture<List<Tarea>> buscarTareas(String texto, int offset, int limite) {
+        return ejecutar(() -> gestorTareas.buscarTareas(texto, offset, limite));
+    }
+    
+    public CompletableFuture<ResumenTareas> obtenerResumen() {
+        return ejecutar(gestorTareas::obtenerResumen);
+    }
+    
+    public CompletableFuture<Integer> contarTareas() {
+        return ejecutar(() -> gestorTareas.contarTareas());
+    }
+    
+    public CompletableFuture<Integer> contarTareas(FiltroTareas filtro) {
+        return ejecutar(() -> gestorTareas.contarTareas(filtro));
+    }
+    
+    public CompletableFuture<List<Tarea>> obtenerTareas(int offset, int limite) {
+        return ejecutar(() -> gestorTareas.obtenerTareas(offset, limite));
+    }
+    
+    public CompletableFuture<List<Tarea>> obtenerTareasPorEstado(String estado) {
+        return ejecutar(() -> gestorTareas.obtenerTareasPorEstado(estado));
+    }
+    
+    public CompletableFuture<Tarea> buscarTareaPorId(String id) {
+        return ejecutar(() -> gestorTareas.buscarTareaPorId(id));
+    }
+    
+    public CompletableFuture<Boolean> actualizarTarea(Tarea tarea) {
+        return ejecutar(() -> gestorTareas.actualizarTarea(tarea));
+    }
+    
+    public CompletableFuture<Boolean> eliminarTarea(String id) {
+        return ejecutar(() -> gestorTareas.eliminarTarea(id));
+    }
+    
+    /**
+     * Obtiene el gestor síncrono sobre el que trabaja la fachada
+     * @return Gestor de tareas
+     */
+    public GestorTareas getGestorTareas() {
+        return gestorTareas;
+    }
+    
+    /**
+     * Detiene el pool de hilos; las operaciones en curso terminan normalmente
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,137 @@
+package com.gestiontareas.componentes.gestion;
+
+import com.gestiontareas.modelo.Tarea;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+
+/**
+ * Manejador SAX que construye objetos Tarea en una sola pasada sobre el XML.
+ * Reconoce cualquier número de elementos tarea dentro del documento, por lo
+ * que sirve tanto para un documento por tarea como para resultados agrupados.
+ * Una misma instancia puede reutilizarse para leer varios recursos seguidos.
+ *
+ * Un campo con un valor que no se puede convertir (fecha mal formada, o un
+ * estado o prioridad desconocidos o heredados) conserva el valor por defecto
+ * de una Tarea nueva y se avisa, pero la tarea se entrega igualmente: los recuentos y exportaciones de
+ * GestorTareas cuentan todas las tareas de la colección y tienen que coincidir
+ * con las que se leen.
+ */
+public class LectorTareasSAX extends DefaultHandler {
+    
+    private final Consumer<Tarea> destino;
+    private final StringBuilder texto = new StringBuilder();
+    
+    private Tarea actual;
+    private int profundidad;
+    private int profundidadTarea;
+    private int tareasLeidas;
+    private long caracteresLeidos;
+    
+    /**
+     * Constructor del lector
+     * @param destino Receptor de cada tarea completa leída
+     */
+    public LectorTareasSAX(Consumer<Tarea> destino) {
+        this.destino = destino;
+    }
+    
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atributos) {
+        profundidad++;
+        String nombre = nombre(localName, qName);
+        
+        if (actual == null) {
+            if ("tarea".equals(nombre)) {
+                actual = new Tarea();
+                profundidadTarea = profundidad;
+            }
+        } else if (profundidad == profundidadTarea + 1) {
+            texto.setLength(0);
+        }
+    }
+    
+    @Override
+    public void characters(char[] ch, int inicio, int longitud) {
+        caracteresLeidos += longitud;
+        if (actual != null && profundidad == profundidadTarea + 1) {
+            texto.append(ch, inicio, longitud);
+        }
+    }
+    
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        if (actual != null) {
+            if (profundidad == profundidadTarea) {
+                tareasLeidas++;
+                destino.accept(actual);
+                actual = null;
+            } else if (profundidad == profundidadTarea + 1) {
+                asignarCampo(nombre(localName, qName), texto.toString().trim());
+            }
+        }
+        profundidad--;
+    }
+    
+    /**
+     * Asigna el valor de un elemento hijo a la tarea en construcción
+     * @param campo Nombre del elemento
+     * @param valor Texto del elemento, ya sin entidades
+     */
+    private void asignarCampo(String campo, String valor) {
+        try {
+            switch (campo) {
+                case "id" -> actual.setId(valor);
+                case "titulo" -> actual.setTitulo(valor);
+                case "descripcion" -> actual.setDescripcion(valor);
+                case "estado" -> actual.setEstado(valor);
+                case "prioridad" -> actual.setPrioridad(valor);
+                case "fechaCreacion" -> {
+                    if (!valor.isEmpty()) {
+                        actual.setFechaCreacion(LocalDate.parse(valor));
+                    }
+                }
+                case "fechaVencimiento" -> {
+                    if (!valor.isEmpty()) {
+                        actual.setFechaVencimiento(LocalDate.parse(valor));
+                    }
+                }
+                default -> {
+                    // Elemento desconocido: se ignora
+                }
+            }
+        } catch (DateTimeParseException | ArithmeticException | IllegalArgumentException e) {
+            // Fechas mal formadas o fuera de rango, o estado/prioridad no válidos:
+            // el campo conserva el valor por defecto y la tarea se entrega
+            System.err.println("Aviso: campo " + campo + " no válido en la tarea " +
+                (actual.getId() != null ? actual.getId() : "(sin ID)") + ", se deja el valor por defecto: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Obtiene el nombre del elemento sin depender de si el parser procesa namespaces
+     */
+    private static String nombre(String localName, String qName) {
+        return localName != null && !localName.isEmpty() ? localName : qName;
+    }
+    
+    /**
+     * Obtiene el número de tareas entregadas al destino
+     * @return Tareas leídas, incluidas las que tenían algún campo no válido
+     */
+    public int getTareasLeidas() {
+        return tareasLeidas;
+    }
+    
+    /**
+     * Obtiene el número de caracteres de texto recibidos, como medida
+     * aproximada del volumen leído
+     * @return Caracteres leídos en todos los documentos
+     */
+    public long getCaracteresLeidos() {
+        return caracteresLeidos;
+    }
+}
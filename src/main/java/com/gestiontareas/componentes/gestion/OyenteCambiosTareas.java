@@ -0,0 +1,23 @@
+package com.gestiontareas.componentes.gestion;
+
+import com.gestiontareas.modelo.Tarea;
+
+/**
+ * Recibe los cambios que GestorTareas hace con éxito en la base de datos.
+ * Se llama en el hilo que hizo la operación, después de completarla, por lo
+ * que los oyentes deben ser rápidos y no bloquear.
+ */
+public interface OyenteCambiosTareas {
+    
+    /**
+     * Una tarea se ha creado o actualizado
+     * @param tarea Tarea tal como se guardó
+     */
+    void tareaGuardada(Tarea tarea);
+    
+    /**
+     * Una tarea se ha eliminado
+     * @param id ID de la tarea eliminada
+     */
+    void tareaEliminada(String id);
+}
@@ -0,0 +1,92 @@
+package com.gestiontareas.componentes.gestion;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Resumen agregado de la colección de tareas calculado en el servidor:
+ * recuentos por estado y por prioridad, tareas vencidas y tareas que vencen
+ * en los próximos siete días.
+ */
+public class ResumenTareas {
+    
+    private final LocalDate fecha;
+    private final int total;
+    private final int vencidas;
+    private final int vencenSemana;
+    private final Map<String, Integer> porEstado;
+    private final Map<String, Integer> porPrioridad;
+    
+    /**
+     * Constructor del resumen
+     * @param fecha Fecha de referencia usada para los vencimientos
+     * @param total Número total de tareas
+     * @param vencidas Tareas no completadas con vencimiento anterior a la fecha
+     * @param vencenSemana Tareas no completadas que vencen en los próximos siete días
+     * @param porEstado Número de tareas por estado
+     * @param porPrioridad Número de tareas por prioridad
+     */
+    public ResumenTareas(LocalDate fecha, int total, int vencidas, int vencenSemana,
+                         Map<String, Integer> porEstado, Map<String, Integer> porPrioridad) {
+        this.fecha = fecha;
+        this.total = total;
+        this.vencidas = vencidas;
+        this.vencenSemana = vencenSemana;
+        this.porEstado = Collections.unmodifiableMap(porEstado);
+        this.porPrioridad = Collections.unmodifiableMap(porPrioridad);
+    }
+    
+    /**
+     * Obtiene el número de tareas con un estado
+     * @param estado Estado a consultar
+     * @return Número de tareas (0 si no hay ninguna)
+     */
+    public int getTareasConEstado(String estado) {
+        return porEstado.getOrDefault(estado, 0);
+    }
+    
+    /**
+     * Obtiene el número de tareas con una prioridad
+     * @param prioridad Prioridad a consultar
+     * @return Número de tareas (0 si no hay ninguna)
+     */
+    public int getTareasConPrioridad(String prioridad) {
+        return porPrioridad.getOrDefault(prioridad, 0);
+    }
+    
+    public LocalDate getFecha() {
+        return fecha;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public int getVencidas() {
+        return vencidas;
+    }
+    
+    public int getVencenSemana() {
+        return vencenSemana;
+    }
+    
+    public Map<String, Integer> getPorEstado() {
+        return porEstado;
+    }
+    
+    public Map<String, Integer> getPorPrioridad() {
+        return porPrioridad;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResumenTareas{" +
+                "total=" + total +
+                ", vencidas=" + vencidas +
+                ", vencenSemana=" + vencenSemana +
+                ", porEstado=" + porEstado +
+                ", porPrioridad=" + porPrioridad +
+                '}';
+    }
+}
@@ -0,0 +1,166 @@
+package com.gestiontareas.componentes.indice;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de posiciones de un IndiceColumnarTareas, guardado como un bit
+ * por tarea en un array de long. Es inmutable para quien lo recibe: las
+ * operaciones de conjuntos devuelven un bitmap nuevo, y los recuentos se
+ * hacen palabra a palabra con Long.bitCount, sin crear objetos.
+ */
+public final class BitmapTareas {
+    
+    private final long[] palabras;
+    private final int tamano;
+    
+    /**
+     * Crea un bitmap vacío
+     * @param tamano Número de posiciones
+     */
+    BitmapTareas(int tamano) {
+        this(new long[palabrasPara(tamano)], tamano);
+    }
+    
+    private BitmapTareas(long[] palabras, int tamano) {
+        this.palabras = palabras;
+        this.tamano = tamano;
+    }
+    
+    /**
+     * Crea un bitmap con todas las posiciones marcadas
+     * @param tamano Número de posiciones
+     * @return Bitmap completo
+     */
+    static BitmapTareas completo(int tamano) {
+        BitmapTareas bitmap = new BitmapTareas(tamano);
+        Arrays.fill(bitmap.palabras, -1L);
+        int resto = tamano & 63;
+        if (resto != 0) {
+            // Los bits sobrantes de la última palabra quedan a cero
+            bitmap.palabras[bitmap.palabras.length - 1] = (1L << resto) - 1;
+        }
+        return bitmap;
+    }
+    
+    static int palabrasPara(int tamano) {
+        return (tamano + 63) >>> 6;
+    }
+    
+    /**
+     * Marca una posición; solo se usa mientras se construye el bitmap
+     */
+    void marcar(int posicion) {
+        palabras[posicion >>> 6] |= 1L << posicion;
+    }
+    
+    long palabra(int indice) {
+        return palabras[indice];
+    }
+    
+    int numeroPalabras() {
+        return palabras.length;
+    }
+    
+    /**
+     * Comprueba si una posición está en el conjunto
+     * @param posicion Posición de la tarea en el índice
+     * @return true si está marcada
+     */
+    public boolean contiene(int posicion) {
+        return posicion >= 0 && posicion < tamano && (palabras[posicion >>> 6] & (1L << posicion)) != 0;
+    }
+    
+    /**
+     * Cuenta las posiciones marcadas
+     * @return Número de tareas del conjunto
+     */
+    public int contar() {
+        int cuenta = 0;
+        for (long palabra : palabras) {
+            cuenta += Long.bitCount(palabra);
+        }
+        return cuenta;
+    }
+    
+    /**
+     * Cuenta las posiciones comunes con otro bitmap sin crear la intersección
+     * @param otro Bitmap del mismo índice
+     * @return Número de tareas en ambos conjuntos
+     */
+    public int contarInterseccion(BitmapTareas otro) {
+        comprobarTamano(otro);
+        int cuenta = 0;
+        for (int i = 0; i < palabras.length; i++) {
+            cuenta += Long.bitCount(palabras[i] & otro.palabras[i]);
+        }
+        return cuenta;
+    }
+    
+    /**
+     * Busca la siguiente posición marcada, para recorrer el conjunto con
+     * for (int i = b.siguiente(0); i >= 0; i = b.siguiente(i + 1))
+     * @param desde Primera posición a considerar
+     * @return Posición encontrada o -1 si no hay más
+     */
+    public int siguiente(int desde) {
+        if (desde >= tamano) {
+            return -1;
+        }
+        int indice = desde >>> 6;
+        long palabra = palabras[indice] & (-1L << desde);
+        while (true) {
+            if (palabra != 0) {
+                return (indice << 6) + Long.numberOfTrailingZeros(palabra);
+            }
+            if (++indice == palabras.length) {
+                return -1;
+            }
+            palabra = palabras[indice];
+        }
+    }
+    
+    public BitmapTareas interseccion(BitmapTareas otro) {
+        comprobarTamano(otro);
+        long[] resultado = new long[palabras.length];
+        for (int i = 0; i < palabras.length; i++) {
+            resultado[i] = palabras[i] & otro.palabras[i];
+        }
+        return new BitmapTareas(resultado, tamano);
+    }
+    
+    public BitmapTareas union(BitmapTareas otro) {
+        comprobarTamano(otro);
+        long[] resultado = new long[palabras.length];
+        for (int i = 0; i < palabras.length; i++) {
+            resultado[i] = palabras[i] | otro.palabras[i];
+        }
+        return new BitmapTareas(resultado, tamano);
+    }
+    
+    public BitmapTareas diferencia(BitmapTareas otro) {
+        comprobarTamano(otro);
+        long[] resultado = new long[palabras.length];
+        for (int i = 0; i < palabras.length; i++) {
+            resultado[i] = palabras[i] & ~otro.palabras[i];
+        }
+        return new BitmapTareas(resultado, tamano);
+    }
+    
+    /**
+     * @return Número de posiciones del bitmap (el tamaño del índice)
+     */
+    public int getTamano() {
+        return tamano;
+    }
+    
+    private void comprobarTamano(BitmapTareas otro) {
+        if (otro.tamano != tamano) {
+            throw new IllegalArgumentException("Los bitmaps son de índices distintos");
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "BitmapTareas{" + contar() + "/" + tamano + "}";
+    }
+}
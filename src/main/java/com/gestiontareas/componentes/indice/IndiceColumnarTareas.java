@@ -0,0 +1,414 @@
+package com.gestiontareas.componentes.indice;
+
+import com.gestiontareas.componentes.gestion.FiltroTareas;
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.componentes.gestion.ResumenTareas;
+import com.gestiontareas.modelo.EstadoTarea;
+import com.gestiontareas.modelo.PrioridadTarea;
+import com.gestiontareas.modelo.Tarea;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria, por columnas, de una foto del conjunto de tareas, para
+ * filtrar y contar sin consultar a eXist-db ni crear objetos Tarea.
+ *
+ * Cada tarea ocupa una posición y sus campos se guardan en arrays primitivos:
+ * estado y prioridad como código de un byte (el ordinal del enumerado) y el
+ * vencimiento como días desde la época. Por cada estado y prioridad hay un
+ * BitmapTareas con sus posiciones, y las posiciones con vencimiento se
+ * guardan además ordenadas por fecha, de modo que un rango de fechas se
+ * resuelve con dos búsquedas binarias.
+ *
+ * El índice no se actualiza: refleja las tareas del momento en que se
+ * construyó y se sustituye por otro nuevo cuando hace falta.
+ */
+public class IndiceColumnarTareas {
+    
+    // Código de las tareas sin estado o sin prioridad
+    private static final byte SIN_VALOR = -1;
+    private static final int CAPACIDAD_INICIAL = 1024;
+    
+    private static final EstadoTarea[] ESTADOS = EstadoTarea.values();
+    private static final PrioridadTarea[] PRIORIDADES = PrioridadTarea.values();
+    
+    private final int tamano;
+    private final String[] ids;
+    private final byte[] estados;
+    private final byte[] prioridades;
+    private final int[] diasVencimiento;
+    
+    private final BitmapTareas todas;
+    private final BitmapTareas[] porEstado;
+    private final BitmapTareas[] porPrioridad;
+    private final BitmapTareas conVencimiento;
+    // Posiciones con vencimiento ordenadas por fecha, con su fecha y su estado
+    // y prioridad combinados (ver combinar) en el mismo orden, para recorrer
+    // los rangos secuencialmente
+    private final int[] ordenVencimiento;
+    private final int[] diasOrdenados;
+    private final byte[] codigosOrdenados;
+    
+    private IndiceColumnarTareas(int tamano, String[] ids, byte[] estados, byte[] prioridades,
+                                 int[] diasVencimiento) {
+        this.tamano = tamano;
+        this.ids = ids;
+        this.estados = estados;
+        this.prioridades = prioridades;
+        this.diasVencimiento = diasVencimiento;
+        
+        this.todas = BitmapTareas.completo(tamano);
+        this.porEstado = new BitmapTareas[ESTADOS.length];
+        for (int i = 0; i < porEstado.length; i++) {
+            porEstado[i] = new BitmapTareas(tamano);
+        }
+        this.porPrioridad = new BitmapTareas[PRIORIDADES.length];
+        for (int i = 0; i < porPrioridad.length; i++) {
+            porPrioridad[i] = new BitmapTareas(tamano);
+        }
+        this.conVencimiento = new BitmapTareas(tamano);
+        
+        int fechadas = 0;
+        for (int i = 0; i < tamano; i++) {
+            if (estados[i] != SIN_VALOR) {
+                porEstado[estados[i]].marcar(i);
+            }
+            if (prioridades[i] != SIN_VALOR) {
+                porPrioridad[prioridades[i]].marcar(i);
+            }
+            if (diasVencimiento[i] != Tarea.SIN_FECHA) {
+                conVencimiento.marcar(i);
+                fechadas++;
+            }
+        }
+        
+        // Se ordena por (día, posición) empaquetados en un long, sin objetos intermedios
+        long[] claves = new long[fechadas];
+        int j = 0;
+        for (int i = 0; i < tamano; i++) {
+            if (diasVencimiento[i] != Tarea.SIN_FECHA) {
+                claves[j++] = (long) diasVencimiento[i] << 32 | i;
+            }
+        }
+        Arrays.sort(claves);
+        this.ordenVencimiento = new int[fechadas];
+        this.diasOrdenados = new int[fechadas];
+        this.codigosOrdenados = new byte[fechadas];
+        for (int k = 0; k < fechadas; k++) {
+            int posicion = (int) claves[k];
+            ordenVencimiento[k] = posicion;
+            diasOrdenados[k] = (int) (claves[k] >> 32);
+            codigosOrdenados[k] = combinar(estados[posicion], prioridades[posicion]);
+        }
+    }
+    
+    /**
+     * Construye el índice con todas las tareas del gestor. Las tareas se leen
+     * como Stream, por lo que no llegan a estar todas en memoria a la vez.
+     * @param gestor Gestor del que se leen las tareas
+     * @return Índice con todas las tareas
+     * @throws com.gestiontareas.componentes.gestion.ErrorLecturaTareas Si falla la lectura de las tareas
+     */
+    public static IndiceColumnarTareas construir(GestorTareas gestor) {
+        try (Stream<Tarea> tareas = gestor.streamTareas()) {
+            return desde(tareas.iterator());
+        }
+    }
+    
+    /**
+     * Construye el índice a partir de tareas ya leídas
+     * @param tareas Tareas a indexar
+     * @return Índice con las tareas
+     */
+    public static IndiceColumnarTareas desde(Iterable<Tarea> tareas) {
+        return desde(tareas.iterator());
+    }
+    
+    private static IndiceColumnarTareas desde(Iterator<Tarea> tareas) {
+        int capacidad = CAPACIDAD_INICIAL;
+        String[] ids = new String[capacidad];
+        byte[] estados = new byte[capacidad];
+        byte[] prioridades = new byte[capacidad];
+        int[] dias = new int[capacidad];
+        int tamano = 0;
+        
+        while (tareas.hasNext()) {
+            Tarea tarea = tareas.next();
+            if (tamano == capacidad) {
+                capacidad *= 2;
+                ids = Arrays.copyOf(ids, capacidad);
+                estados = Arrays.copyOf(estados, capacidad);
+                prioridades = Arrays.copyOf(prioridades, capacidad);
+                dias = Arrays.copyOf(dias, capacidad);
+            }
+            ids[tamano] = tarea.getId();
+            estados[tamano] = codigo(tarea.getEstadoTarea());
+            prioridades[tamano] = codigo(tarea.getPrioridadTarea());
+            dias[tamano] = tarea.getDiaVencimiento();
+            tamano++;
+        }
+        
+        return new IndiceColumnarTareas(tamano, Arrays.copyOf(ids, tamano),
+            Arrays.copyOf(estados, tamano), Arrays.copyOf(prioridades, tamano),
+            Arrays.copyOf(dias, tamano));
+    }
+    
+    private static byte codigo(Enum<?> valor) {
+        return valor != null ? (byte) valor.ordinal() : SIN_VALOR;
+    }
+    
+    /**
+     * @return Bitmap con todas las tareas del índice
+     */
+    public BitmapTareas todas() {
+        return todas;
+    }
+    
+    /**
+     * @param estado Estado buscado
+     * @return Bitmap de las tareas con ese estado
+     */
+    public BitmapTareas conEstado(EstadoTarea estado) {
+        return porEstado[estado.ordinal()];
+    }
+    
+    /**
+     * @param prioridad Prioridad buscada
+     * @return Bitmap de las tareas con esa prioridad
+     */
+    public BitmapTareas conPrioridad(PrioridadTarea prioridad) {
+        return porPrioridad[prioridad.ordinal()];
+    }
+    
+    /**
+     * Obtiene las tareas que vencen en un rango de fechas, ambas incluidas.
+     * Las tareas sin vencimiento no entran en ningún rango.
+     * @param desde Primera fecha del rango (null para no acotar)
+     * @param hasta Última fecha del rango (null para no acotar)
+     * @return Bitmap de las tareas del rango
+     */
+    public BitmapTareas vencenEntre(LocalDate desde, LocalDate hasta) {
+        int inicio = inicioRango(desde);
+        // Un rango invertido queda vacío
+        int fin = Math.max(inicio, finRango(hasta));
+        BitmapTareas rango = new BitmapTareas(tamano);
+        for (int k = inicio; k < fin; k++) {
+            rango.marcar(ordenVencimiento[k]);
+        }
+        return rango;
+    }
+    
+    /**
+     * Aplica los criterios de un filtro: estado, prioridad y rango de
+     * vencimiento. La ordenación del filtro no afecta al conjunto.
+     * @param filtro Criterios de filtrado
+     * @return Bitmap de las tareas que cumplen el filtro
+     * @throws IllegalArgumentException Si el filtro busca por texto, que no está indexado,
+     *         o tiene un estado o una prioridad no válidos
+     */
+    public BitmapTareas filtrar(FiltroTareas filtro) {
+        comprobarSinTexto(filtro);
+        BitmapTareas resultado = todas;
+        if (filtro.getEstado() != null) {
+            resultado = resultado.interseccion(conEstado(EstadoTarea.desdeValor(filtro.getEstado())));
+        }
+        if (filtro.getPrioridad() != null) {
+            resultado = resultado.interseccion(conPrioridad(PrioridadTarea.desdeValor(filtro.getPrioridad())));
+        }
+        if (filtro.getVencimientoDesde() != null || filtro.getVencimientoHasta() != null) {
+            resultado = resultado.interseccion(
+                vencenEntre(filtro.getVencimientoDesde(), filtro.getVencimientoHasta()));
+        }
+        return resultado;
+    }
+    
+    /**
+     * Cuenta las tareas que cumplen un filtro sin crear ningún objeto.
+     * Con rango de fechas se recorre la parte más corta: las posiciones del
+     * rango o las que quedan fuera de él, que se restan del total.
+     * @param filtro Criterios de filtrado
+     * @return Número de tareas que cumplen el filtro
+     * @throws IllegalArgumentException Si el filtro busca por texto, que no está indexado,
+     *         o tiene un estado o una prioridad no válidos
+     */
+    public int contar(FiltroTareas filtro) {
+        comprobarSinTexto(filtro);
+        byte estado = filtro.getEstado() != null ?
+            codigo(EstadoTarea.desdeValor(filtro.getEstado())) : SIN_VALOR;
+        byte prioridad = filtro.getPrioridad() != null ?
+            codigo(PrioridadTarea.desdeValor(filtro.getPrioridad())) : SIN_VALOR;
+        boolean porFecha = filtro.getVencimientoDesde() != null || filtro.getVencimientoHasta() != null;
+        
+        if (!porFecha) {
+            if (estado == SIN_VALOR && prioridad == SIN_VALOR) {
+                return tamano;
+            }
+            if (estado == SIN_VALOR) {
+                return porPrioridad[prioridad].contar();
+            }
+            if (prioridad == SIN_VALOR) {
+                return porEstado[estado].contar();
+            }
+            return porEstado[estado].contarInterseccion(porPrioridad[prioridad]);
+        }
+        
+        int inicio = inicioRango(filtro.getVencimientoDesde());
+        int fin = Math.max(inicio, finRango(filtro.getVencimientoHasta()));
+        if (estado == SIN_VALOR && prioridad == SIN_VALOR) {
+            return fin - inicio;
+        }
+        
+        int dentro = fin - inicio;
+        int fuera = ordenVencimiento.length - dentro;
+        if (dentro <= fuera) {
+            return contarEnOrden(inicio, fin, estado, prioridad);
+        }
+        
+        // Candidatos con vencimiento menos los que quedan fuera del rango
+        int conFecha = 0;
+        BitmapTareas bitmapEstado = estado != SIN_VALOR ? porEstado[estado] : todas;
+        BitmapTareas bitmapPrioridad = prioridad != SIN_VALOR ? porPrioridad[prioridad] : todas;
+        for (int i = 0; i < conVencimiento.numeroPalabras(); i++) {
+            conFecha += Long.bitCount(bitmapEstado.palabra(i) & bitmapPrioridad.palabra(i)
+                & conVencimiento.palabra(i));
+        }
+        return conFecha - contarEnOrden(0, inicio, estado, prioridad)
+            - contarEnOrden(fin, ordenVencimiento.length, estado, prioridad);
+    }
+    
+    /**
+     * Calcula en memoria el mismo resumen que GestorTareas.obtenerResumen
+     * @param hoy Fecha de referencia para los vencimientos
+     * @return Resumen de las tareas del índice
+     */
+    public ResumenTareas resumen(LocalDate hoy) {
+        Map<String, Integer> estadosResumen = new LinkedHashMap<>();
+        for (EstadoTarea estado : ESTADOS) {
+            int cuenta = porEstado[estado.ordinal()].contar();
+            if (cuenta > 0) {
+                estadosResumen.put(estado.getValor(), cuenta);
+            }
+        }
+        Map<String, Integer> prioridadesResumen = new LinkedHashMap<>();
+        for (PrioridadTarea prioridad : PRIORIDADES) {
+            int cuenta = porPrioridad[prioridad.ordinal()].contar();
+            if (cuenta > 0) {
+                prioridadesResumen.put(prioridad.getValor(), cuenta);
+            }
+        }
+        
+        int inicioHoy = inicioRango(hoy);
+        int inicioSemana = inicioRango(hoy.plusDays(7));
+        int completadasVencidas = contarEnOrden(0, inicioHoy, codigo(EstadoTarea.COMPLETADA), SIN_VALOR);
+        int completadasSemana = contarEnOrden(inicioHoy, inicioSemana, codigo(EstadoTarea.COMPLETADA), SIN_VALOR);
+        int vencidas = inicioHoy - completadasVencidas;
+        int vencenSemana = inicioSemana - inicioHoy - completadasSemana;
+        
+        return new ResumenTareas(hoy, tamano, vencidas, vencenSemana, estadosResumen, prioridadesResumen);
+    }
+    
+    /**
+     * Obtiene los IDs de las tareas de un conjunto, en el orden del índice
+     * @param seleccion Bitmap obtenido de este índice
+     * @return Lista de IDs
+     */
+    public List<String> ids(BitmapTareas seleccion) {
+        List<String> resultado = new ArrayList<>();
+        for (int i = seleccion.siguiente(0); i >= 0; i = seleccion.siguiente(i + 1)) {
+            resultado.add(ids[i]);
+        }
+        return resultado;
+    }
+    
+    public int getTamano() {
+        return tamano;
+    }
+    
+    public String getId(int posicion) {
+        return ids[posicion];
+    }
+    
+    public EstadoTarea getEstado(int posicion) {
+        return estados[posicion] != SIN_VALOR ? ESTADOS[estados[posicion]] : null;
+    }
+    
+    public PrioridadTarea getPrioridad(int posicion) {
+        return prioridades[posicion] != SIN_VALOR ? PRIORIDADES[prioridades[posicion]] : null;
+    }
+    
+    /**
+     * @return Días desde la época del vencimiento, o Tarea.SIN_FECHA
+     */
+    public int getDiaVencimiento(int posicion) {
+        return diasVencimiento[posicion];
+    }
+    
+    /**
+     * Cuenta las posiciones de un tramo de ordenVencimiento con un estado y
+     * una prioridad (SIN_VALOR para no filtrar). El bucle no tiene saltos
+     * que dependan de los datos, así que el JIT puede vectorizarlo.
+     */
+    private int contarEnOrden(int inicio, int fin, byte estado, byte prioridad) {
+        int mascara = (estado != SIN_VALOR ? 0xF0 : 0) | (prioridad != SIN_VALOR ? 0x0F : 0);
+        int objetivo = combinar(estado, prioridad) & mascara;
+        int cuenta = 0;
+        for (int k = inicio; k < fin; k++) {
+            cuenta += (codigosOrdenados[k] & mascara) == objetivo ? 1 : 0;
+        }
+        return cuenta;
+    }
+    
+    /**
+     * Estado en los cuatro bits altos y prioridad en los bajos, sumando uno
+     * a cada código para que SIN_VALOR quede como cero
+     */
+    private static byte combinar(byte estado, byte prioridad) {
+        return (byte) ((estado + 1) << 4 | (prioridad + 1));
+    }
+    
+    /**
+     * Primera posición de ordenVencimiento con fecha igual o posterior a desde
+     */
+    private int inicioRango(LocalDate desde) {
+        return desde != null ? primeraNoMenor(desde.toEpochDay()) : 0;
+    }
+    
+    /**
+     * Posición siguiente a la última de ordenVencimiento con fecha igual o anterior a hasta
+     */
+    private int finRango(LocalDate hasta) {
+        return hasta != null ? primeraNoMenor(hasta.toEpochDay() + 1) : diasOrdenados.length;
+    }
+    
+    private int primeraNoMenor(long dia) {
+        int bajo = 0;
+        int alto = diasOrdenados.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (diasOrdenados[medio] < dia) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+    
+    private static void comprobarSinTexto(FiltroTareas filtro) {
+        if (filtro.getTexto() != null) {
+            throw new IllegalArgumentException("El índice columnar no admite búsqueda por texto");
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "IndiceColumnarTareas{tareas=" + tamano + ", conVencimiento=" + ordenVencimiento.length + "}";
+    }
+}
@@ -0,0 +1,79 @@
+package com.gestiontareas.componentes.metricas;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Valores de una operación en un momento dado. Las latencias se expresan en
+ * microsegundos.
+ */
+public class EstadisticasOperacion {
+    
+    private final String nombre;
+    private final long llamadas;
+    private final long errores;
+    private final long mediaMicros;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long maximoMicros;
+    private final long bytes;
+    private final long documentos;
+    
+    @ConstructorProperties({"nombre", "llamadas", "errores", "mediaMicros", "p50Micros",
+                            "p99Micros", "maximoMicros", "bytes", "documentos"})
+    public EstadisticasOperacion(String nombre, long llamadas, long errores, long mediaMicros,
+                                 long p50Micros, long p99Micros, long maximoMicros,
+                                 long bytes, long documentos) {
+        this.nombre = nombre;
+        this.llamadas = llamadas;
+        this.errores = errores;
+        this.mediaMicros = mediaMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maximoMicros = maximoMicros;
+        this.bytes = bytes;
+        this.documentos = documentos;
+    }
+    
+    // Getters
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public long getLlamadas() {
+        return llamadas;
+    }
+    
+    public long getErrores() {
+        return errores;
+    }
+    
+    public long getMediaMicros() {
+        return mediaMicros;
+    }
+    
+    public long getP50Micros() {
+        return p50Micros;
+    }
+    
+    public long getP99Micros() {
+        return p99Micros;
+    }
+    
+    public long getMaximoMicros() {
+        return maximoMicros;
+    }
+    
+    public long getBytes() {
+        return bytes;
+    }
+    
+    public long getDocumentos() {
+        return documentos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%-24s llamadas=%d errores=%d media=%dus p50=%dus p99=%dus max=%dus bytes=%d docs=%d",
+            nombre, llamadas, errores, mediaMicros, p50Micros, p99Micros, maximoMicros, bytes, documentos);
+    }
+}
@@ -0,0 +1,115 @@
+package com.gestiontareas.componentes.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con cubetas logarítmicas. Cada potencia de dos se
+ * divide en cuatro cubetas, por lo que los percentiles tienen un error
+ * máximo de un 25 % con un tamaño fijo de 256 contadores. Registrar un valor
+ * no reserva memoria ni bloquea, y puede hacerse desde varios hilos.
+ */
+public class HistogramaLatencias {
+    
+    private static final int SUBCUBETAS_BITS = 2;
+    private static final int SUBCUBETAS = 1 << SUBCUBETAS_BITS;
+    private static final int CUBETAS = 64 * SUBCUBETAS;
+    
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+    
+    /**
+     * Registra una medida
+     * @param nanos Duración en nanosegundos
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(nanos, 0);
+        cubetas.incrementAndGet(indice(valor));
+        total.increment();
+        suma.add(valor);
+        maximo.accumulate(valor);
+    }
+    
+    /**
+     * Estima un percentil a partir de las cubetas
+     * @param percentil Percentil entre 0 y 100
+     * @return Límite superior de la cubeta que contiene el percentil, en
+     *         nanosegundos (0 si no hay medidas)
+     */
+    public long percentil(double percentil) {
+        long cuenta = total.sum();
+        if (cuenta == 0) {
+            return 0;
+        }
+        
+        long objetivo = Math.max(1, (long) Math.ceil(cuenta * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+    
+    /**
+     * Vacía el histograma. Las medidas concurrentes con el vaciado pueden
+     * conservarse o perderse.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            cubetas.set(i, 0);
+        }
+        total.reset();
+        suma.reset();
+        maximo.reset();
+    }
+    
+    public long getCuenta() {
+        return total.sum();
+    }
+    
+    public long getSumaNanos() {
+        return suma.sum();
+    }
+    
+    public long getMaximoNanos() {
+        return maximo.get();
+    }
+    
+    public long getMediaNanos() {
+        long cuenta = total.sum();
+        return cuenta > 0 ? suma.sum() / cuenta : 0;
+    }
+    
+    /**
+     * Cubeta de un valor: los valores menores que SUBCUBETAS tienen cubeta
+     * propia; el resto se agrupa por su bit más alto y los dos siguientes
+     */
+    private static int indice(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int sub = (int) (valor >>> (exponente - SUBCUBETAS_BITS)) & (SUBCUBETAS - 1);
+        return (exponente - SUBCUBETAS_BITS + 1) * SUBCUBETAS + sub;
+    }
+    
+    /**
+     * Mayor valor que cae en una cubeta
+     */
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int exponente = indice / SUBCUBETAS + SUBCUBETAS_BITS - 1;
+        int sub = indice % SUBCUBETAS;
+        long inicio = (long) (SUBCUBETAS + sub) << (exponente - SUBCUBETAS_BITS);
+        long ancho = 1L << (exponente - SUBCUBETAS_BITS);
+        return inicio + ancho - 1;
+    }
+}
@@ -0,0 +1,88 @@
+package com.gestiontareas.componentes.metricas;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Estado de todas las métricas en un momento dado: estadísticas por
+ * operación y estado del pool de conexiones.
+ */
+public class InstantaneaMetricas {
+    
+    private final Instant momento;
+    private final List<EstadisticasOperacion> operaciones;
+    private final List<EstadisticasOperacion> conexiones;
+    private final int coleccionesAbiertas;
+    private final int coleccionesLibres;
+    private final long invalidaciones;
+    private final long reconexiones;
+    
+    /**
+     * Constructor de la instantánea
+     * @param momento Momento en que se tomó
+     * @param operaciones Estadísticas de cada operación de GestorTareas
+     * @param conexiones Estadísticas del pool: préstamo y apertura de colecciones
+     * @param coleccionesAbiertas Colecciones abiertas en el pool
+     * @param coleccionesLibres Colecciones abiertas sin prestar
+     * @param invalidaciones Colecciones descartadas por error
+     * @param reconexiones Colecciones reabiertas tras descartarse
+     */
+    public InstantaneaMetricas(Instant momento, List<EstadisticasOperacion> operaciones,
+                               List<EstadisticasOperacion> conexiones, int coleccionesAbiertas,
+                               int coleccionesLibres, long invalidaciones, long reconexiones) {
+        this.momento = momento;
+        this.operaciones = Collections.unmodifiableList(operaciones);
+        this.conexiones = Collections.unmodifiableList(conexiones);
+        this.coleccionesAbiertas = coleccionesAbiertas;
+        this.coleccionesLibres = coleccionesLibres;
+        this.invalidaciones = invalidaciones;
+        this.reconexiones = reconexiones;
+    }
+    
+    // Getters
+    public Instant getMomento() {
+        return momento;
+    }
+    
+    public List<EstadisticasOperacion> getOperaciones() {
+        return operaciones;
+    }
+    
+    public List<EstadisticasOperacion> getConexiones() {
+        return conexiones;
+    }
+    
+    public int getColeccionesAbiertas() {
+        return coleccionesAbiertas;
+    }
+    
+    public int getColeccionesLibres() {
+        return coleccionesLibres;
+    }
+    
+    public long getInvalidaciones() {
+        return invalidaciones;
+    }
+    
+    public long getReconexiones() {
+        return reconexiones;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        texto.append("Métricas ").append(momento).append('\n');
+        for (EstadisticasOperacion operacion : operaciones) {
+            texto.append("  ").append(operacion).append('\n');
+        }
+        for (EstadisticasOperacion conexion : conexiones) {
+            texto.append("  ").append(conexion).append('\n');
+        }
+        texto.append("  pool: abiertas=").append(coleccionesAbiertas)
+             .append(" libres=").append(coleccionesLibres)
+             .append(" invalidaciones=").append(invalidaciones)
+             .append(" reconexiones=").append(reconexiones);
+        return texto.toString();
+    }
+}
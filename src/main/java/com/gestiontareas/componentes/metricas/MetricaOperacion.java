@@ -0,0 +1,88 @@
+package com.gestiontareas.componentes.metricas;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de una operación: llamadas, errores, latencias, bytes
+ * transferidos y documentos leídos. Todos admiten escrituras concurrentes
+ * sin bloqueos.
+ */
+public class MetricaOperacion {
+    
+    private final String nombre;
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder documentos = new LongAdder();
+    private final HistogramaLatencias latencias = new HistogramaLatencias();
+    
+    /**
+     * Constructor de la métrica
+     * @param nombre Nombre de la operación
+     */
+    public MetricaOperacion(String nombre) {
+        this.nombre = nombre;
+    }
+    
+    /**
+     * Registra una llamada terminada
+     * @param inicioNanos Valor de System.nanoTime() al empezar
+     * @param correcta false si la llamada terminó con error
+     */
+    public void registrar(long inicioNanos, boolean correcta) {
+        latencias.registrar(System.nanoTime() - inicioNanos);
+        if (!correcta) {
+            errores.increment();
+        }
+    }
+    
+    /**
+     * Suma bytes enviados o recibidos (caracteres del XML transferido)
+     * @param cantidad Número de bytes
+     */
+    public void sumarBytes(long cantidad) {
+        bytes.add(cantidad);
+    }
+    
+    /**
+     * Suma documentos o elementos tarea leídos
+     * @param cantidad Número de documentos
+     */
+    public void sumarDocumentos(long cantidad) {
+        documentos.add(cantidad);
+    }
+    
+    /**
+     * Toma los valores actuales de la métrica
+     * @return Estadísticas de la operación
+     */
+    public EstadisticasOperacion getEstadisticas() {
+        return new EstadisticasOperacion(nombre,
+            latencias.getCuenta(),
+            errores.sum(),
+            TimeUnit.NANOSECONDS.toMicros(latencias.getMediaNanos()),
+            TimeUnit.NANOSECONDS.toMicros(latencias.percentil(50)),
+            TimeUnit.NANOSECONDS.toMicros(latencias.percentil(99)),
+            TimeUnit.NANOSECONDS.toMicros(latencias.getMaximoNanos()),
+            bytes.sum(),
+            documentos.sum());
+    }
+    
+    /**
+     * Pone a cero todos los contadores
+     */
+    public void reiniciar() {
+        latencias.reiniciar();
+        errores.reset();
+        bytes.reset();
+        documentos.reset();
+    }
+    
+    public String getNombre() {
+        return nombre;
+    }
+    
+    public HistogramaLatencias getLatencias() {
+        return latencias;
+    }
+}
@@ -0,0 +1,189 @@
+package com.gestiontareas.componentes.metricas;
+
+import com.gestiontareas.componentes.bd.ConectorBD;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Registro de métricas de GestorTareas: una MetricaOperacion por operación,
+ * creada la primera vez que se usa, más los datos del pool de conexiones
+ * del ConectorBD. Permite tomar instantáneas bajo demanda o periódicamente
+ * y publicarlas por JMX.
+ */
+public class MetricasTareas implements MetricasTareasMXBean {
+    
+    public static final String NOMBRE_JMX = "com.gestiontareas:type=MetricasTareas";
+    
+    private final ConectorBD conectorBD;
+    private final ConcurrentMap<String, MetricaOperacion> operaciones = new ConcurrentHashMap<>();
+    private ScheduledExecutorService planificador;
+    private ObjectName nombreRegistrado;
+    
+    /**
+     * Constructor del registro
+     * @param conectorBD Conector cuyo pool se incluye en las métricas (puede ser null)
+     */
+    public MetricasTareas(ConectorBD conectorBD) {
+        this.conectorBD = conectorBD;
+    }
+    
+    /**
+     * Obtiene la métrica de una operación, creándola si no existe
+     * @param nombre Nombre de la operación
+     * @return Métrica de la operación
+     */
+    public MetricaOperacion operacion(String nombre) {
+        return operaciones.computeIfAbsent(nombre, MetricaOperacion::new);
+    }
+    
+    /**
+     * Toma los valores actuales de todas las métricas
+     * @return Instantánea de las métricas
+     */
+    public InstantaneaMetricas instantanea() {
+        List<EstadisticasOperacion> estadisticas = new ArrayList<>(operaciones.size());
+        for (MetricaOperacion operacion : operaciones.values()) {
+            estadisticas.add(operacion.getEstadisticas());
+        }
+        estadisticas.sort(Comparator.comparing(EstadisticasOperacion::getNombre));
+        
+        if (conectorBD == null) {
+            return new InstantaneaMetricas(Instant.now(), estadisticas, List.of(), 0, 0, 0, 0);
+        }
+        return new InstantaneaMetricas(Instant.now(), estadisticas,
+            List.of(conectorBD.getMetricaPrestamos().getEstadisticas(),
+                    conectorBD.getMetricaAperturas().getEstadisticas()),
+            conectorBD.getColeccionesAbiertas(), conectorBD.getColeccionesLibres(),
+            conectorBD.getInvalidaciones(), conectorBD.getReconexiones());
+    }
+    
+    /**
+     * Entrega una instantánea cada cierto tiempo, en un hilo propio.
+     * Sustituye a la programación anterior si la había.
+     * @param periodo Tiempo entre instantáneas
+     * @param destino Receptor de las instantáneas
+     */
+    public synchronized void iniciarInstantaneas(Duration periodo, Consumer<InstantaneaMetricas> destino) {
+        detenerInstantaneas();
+        planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "metricas-tareas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleAtFixedRate(() -> {
+            try {
+                destino.accept(instantanea());
+            } catch (RuntimeException e) {
+                System.err.println("Error al publicar métricas: " + e.getMessage());
+            }
+        }, periodo.toMillis(), periodo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Detiene las instantáneas periódicas
+     */
+    public synchronized void detenerInstantaneas() {
+        if (planificador != null) {
+            planificador.shutdownNow();
+            planificador = null;
+        }
+    }
+    
+    /**
+     * Publica las métricas en el servidor JMX de la plataforma. Si ya había
+     * otras registradas con el mismo nombre, se sustituyen.
+     * @return true si se registraron correctamente
+     */
+    public synchronized boolean registrarJMX() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (servidor.isRegistered(nombre)) {
+                servidor.unregisterMBean(nombre);
+            }
+            servidor.registerMBean(this, nombre);
+            nombreRegistrado = nombre;
+            System.out.println("Métricas publicadas en JMX como " + NOMBRE_JMX);
+            return true;
+        
+        } catch (JMException e) {
+            System.err.println("No se pudieron publicar las métricas en JMX: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Retira las métricas del servidor JMX si se habían registrado
+     */
+    public synchronized void desregistrarJMX() {
+        if (nombreRegistrado == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(nombreRegistrado);
+        } catch (JMException e) {
+            System.err.println("Error al retirar las métricas de JMX: " + e.getMessage());
+        }
+        nombreRegistrado = null;
+    }
+    
+    @Override
+    public List<EstadisticasOperacion> getOperaciones() {
+        return instantanea().getOperaciones();
+    }
+    
+    @Override
+    public List<EstadisticasOperacion> getConexiones() {
+        return instantanea().getConexiones();
+    }
+    
+    @Override
+    public int getColeccionesAbiertas() {
+        return conectorBD != null ? conectorBD.getColeccionesAbiertas() : 0;
+    }
+    
+    @Override
+    public int getColeccionesLibres() {
+        return conectorBD != null ? conectorBD.getColeccionesLibres() : 0;
+    }
+    
+    @Override
+    public long getInvalidaciones() {
+        return conectorBD != null ? conectorBD.getInvalidaciones() : 0;
+    }
+    
+    @Override
+    public long getReconexiones() {
+        return conectorBD != null ? conectorBD.getReconexiones() : 0;
+    }
+    
+    @Override
+    public String resumen() {
+        return instantanea().toString();
+    }
+    
+    @Override
+    public void reiniciar() {
+        for (MetricaOperacion operacion : operaciones.values()) {
+            operacion.reiniciar();
+        }
+        if (conectorBD != null) {
+            conectorBD.getMetricaPrestamos().reiniciar();
+            conectorBD.getMetricaAperturas().reiniciar();
+        }
+    }
+}
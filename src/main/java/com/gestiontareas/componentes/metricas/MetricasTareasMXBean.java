@@ -0,0 +1,33 @@
+package com.gestiontareas.componentes.metricas;
+
+import java.util.List;
+
+/**
+ * Vista JMX de las métricas de GestorTareas y del pool de conexiones.
+ * Se registra como com.gestiontareas:type=MetricasTareas.
+ */
+public interface MetricasTareasMXBean {
+    
+    List<EstadisticasOperacion> getOperaciones();
+    
+    List<EstadisticasOperacion> getConexiones();
+    
+    int getColeccionesAbiertas();
+    
+    int getColeccionesLibres();
+    
+    long getInvalidaciones();
+    
+    long getReconexiones();
+    
+    /**
+     * Texto legible con todas las métricas
+     * @return Resumen de la instantánea actual
+     */
+    String resumen();
+    
+    /**
+     * Pone a cero los contadores de las operaciones
+     */
+    void reiniciar();
+}
@@ -0,0 +1,103 @@
+package com.gestiontareas.componentes.migracion;
+
+import com.gestiontareas.componentes.gestion.EscritorXMLTareas;
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.modelo.Tarea;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Exporta todas las tareas a un fichero XML o CSV (extensión .csv).
+ *
+ * Las tareas se recorren con GestorTareas.streamTareas y se escriben una a
+ * una, sin cargar la lista completa. Se escribe en un fichero temporal que
+ * solo sustituye al destino cuando la exportación termina bien y el número
+ * de tareas escritas coincide con el recuento de la colección.
+ */
+public class ExportadorTareas {
+    
+    private static final long INTERVALO_PROGRESO_NANOS = TimeUnit.SECONDS.toNanos(2);
+    
+    private final GestorTareas gestorTareas;
+    
+    /**
+     * Constructor del exportador
+     * @param gestorTareas Gestor del que se leen las tareas
+     */
+    public ExportadorTareas(GestorTareas gestorTareas) {
+        this.gestorTareas = gestorTareas;
+    }
+    
+    /**
+     * Exporta todas las tareas
+     * @param destino Fichero de salida; se reemplaza si existe
+     * @return Número de tareas exportadas
+     * @throws IOException Si falla la escritura o el número de tareas leídas no
+     *                     coincide con el de la colección; el destino no se modifica
+     * @throws com.gestiontareas.componentes.gestion.ErrorLecturaTareas Si falla la lectura de
+     *                     las tareas; el destino no se modifica
+     */
+    public long exportar(Path destino) throws IOException {
+        boolean csv = ImportadorTareas.esCSV(destino);
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        int esperadas = gestorTareas.contarTareas();
+        long inicioNanos = System.nanoTime();
+        long ultimoInformeNanos = inicioNanos;
+        long exportadas = 0;
+        
+        try (Stream<Tarea> tareas = gestorTareas.streamTareas();
+             BufferedWriter salida = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+            if (csv) {
+                FormatoCSVTareas.escribirCabecera(salida);
+            } else {
+                salida.write(EscritorXMLTareas.DECLARACION);
+                salida.write("<tareas>\n");
+            }
+            
+            Iterator<Tarea> iterador = tareas.iterator();
+            while (iterador.hasNext()) {
+                Tarea tarea = iterador.next();
+                if (csv) {
+                    FormatoCSVTareas.escribirTarea(salida, tarea);
+                } else {
+                    EscritorXMLTareas.escribirTarea(salida, tarea);
+                    salida.write('\n');
+                }
+                exportadas++;
+                
+                long ahora = System.nanoTime();
+                if (ahora - ultimoInformeNanos >= INTERVALO_PROGRESO_NANOS) {
+                    ultimoInformeNanos = ahora;
+                    System.out.printf("Exportación: %,d de %,d tareas%n", exportadas, esperadas);
+                }
+            }
+            
+            if (!csv) {
+                salida.write("</tareas>\n");
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        
+        if (exportadas != esperadas) {
+            // Un recuento distinto deja el destino anterior intacto: la
+            // colección ha cambiado durante la exportación o la lectura se cortó
+            Files.deleteIfExists(temporal);
+            throw new IOException("Se esperaban " + esperadas + " tareas y se leyeron " + exportadas +
+                "; no se ha modificado " + destino);
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.printf("Exportadas %,d tareas a %s en %d ms%n", exportadas, destino,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioNanos));
+        return exportadas;
+    }
+}
@@ -0,0 +1,211 @@
+package com.gestiontareas.componentes.migracion;
+
+import com.gestiontareas.modelo.Tarea;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Lectura y escritura de tareas en CSV (RFC 4180: separador coma, campos
+ * entre comillas si contienen comas, comillas o saltos de línea, y comillas
+ * dobladas dentro de ellos). La primera fila es la cabecera con los nombres
+ * de los campos; al leer, las columnas se localizan por nombre y las
+ * desconocidas se ignoran.
+ *
+ * La lectura avanza carácter a carácter sobre el Reader y solo guarda la
+ * fila en curso, por lo que la memoria no depende del tamaño del fichero.
+ */
+public final class FormatoCSVTareas {
+    
+    public static final String[] COLUMNAS =
+        {"id", "titulo", "descripcion", "estado", "prioridad", "fechaCreacion", "fechaVencimiento"};
+    
+    private FormatoCSVTareas() {
+    }
+    
+    /**
+     * Lee todas las tareas de un CSV. Las filas que no se pueden convertir
+     * se informan y se saltan.
+     * @param entrada CSV con cabecera
+     * @param destino Receptor de cada tarea leída
+     * @return Número de filas de datos descartadas por error
+     * @throws IOException Si falla la lectura o falta la cabecera
+     */
+    public static int leer(BufferedReader entrada, Consumer<Tarea> destino) throws IOException {
+        List<String> campos = new ArrayList<>(COLUMNAS.length);
+        StringBuilder campo = new StringBuilder();
+        
+        if (!leerFila(entrada, campos, campo)) {
+            throw new IOException("El fichero CSV está vacío");
+        }
+        Map<String, Integer> posiciones = new HashMap<>();
+        for (int i = 0; i < campos.size(); i++) {
+            // La marca de orden de bytes que añaden algunas hojas de cálculo no forma parte del nombre
+            posiciones.put(campos.get(i).replace("\uFEFF", "").trim(), i);
+        }
+        if (!posiciones.containsKey("titulo")) {
+            throw new IOException("La cabecera del CSV no tiene la columna titulo");
+        }
+        
+        int fila = 1;
+        int descartadas = 0;
+        while (leerFila(entrada, campos, campo)) {
+            fila++;
+            if (campos.size() == 1 && campos.get(0).isEmpty()) {
+                // Línea en blanco
+                continue;
+            }
+            try {
+                destino.accept(aTarea(campos, posiciones));
+            } catch (DateTimeParseException | ArithmeticException | IllegalArgumentException e) {
+                System.err.println("Fila " + fila + " del CSV descartada: " + e.getMessage());
+                descartadas++;
+            }
+        }
+        return descartadas;
+    }
+    
+    /**
+     * Escribe la fila de cabecera
+     * @param destino Destino de la salida
+     * @throws IOException Si falla la escritura
+     */
+    public static void escribirCabecera(Appendable destino) throws IOException {
+        destino.append(String.join(",", COLUMNAS)).append("\r\n");
+    }
+    
+    /**
+     * Escribe una tarea como fila CSV
+     * @param destino Destino de la salida
+     * @param tarea Tarea a escribir
+     * @throws IOException Si falla la escritura
+     */
+    public static void escribirTarea(Appendable destino, Tarea tarea) throws IOException {
+        escribirCampo(destino, tarea.getId());
+        destino.append(',');
+        escribirCampo(destino, tarea.getTitulo());
+        destino.append(',');
+        escribirCampo(destino, tarea.getDescripcion());
+        destino.append(',');
+        escribirCampo(destino, tarea.getEstado());
+        destino.append(',');
+        escribirCampo(destino, tarea.getPrioridad());
+        destino.append(',');
+        if (tarea.getFechaCreacion() != null) {
+            destino.append(tarea.getFechaCreacion().toString());
+        }
+        destino.append(',');
+        if (tarea.getFechaVencimiento() != null) {
+            destino.append(tarea.getFechaVencimiento().toString());
+        }
+        destino.append("\r\n");
+    }
+    
+    private static void escribirCampo(Appendable destino, String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        boolean comillas = false;
+        for (int i = 0; i < valor.length() && !comillas; i++) {
+            char c = valor.charAt(i);
+            comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            destino.append(valor);
+            return;
+        }
+        destino.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                destino.append('"');
+            }
+            destino.append(c);
+        }
+        destino.append('"');
+    }
+    
+    /**
+     * Lee la siguiente fila en la lista de campos
+     * @return false si se ha llegado al final del fichero sin leer nada
+     */
+    private static boolean leerFila(BufferedReader entrada, List<String> campos, StringBuilder campo) throws IOException {
+        campos.clear();
+        campo.setLength(0);
+        boolean entreComillas = false;
+        boolean leido = false;
+        
+        int c;
+        while ((c = entrada.read()) != -1) {
+            leido = true;
+            if (entreComillas) {
+                if (c == '"') {
+                    entrada.mark(1);
+                    int siguiente = entrada.read();
+                    if (siguiente == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        if (siguiente != -1) {
+                            entrada.reset();
+                        }
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                campo.append((char) c);
+            }
+        }
+        
+        if (!leido) {
+            return false;
+        }
+        campos.add(campo.toString());
+        return true;
+    }
+    
+    private static Tarea aTarea(List<String> campos, Map<String, Integer> posiciones) {
+        Tarea tarea = new Tarea();
+        tarea.setId(vacioANull(valor(campos, posiciones, "id")));
+        tarea.setTitulo(valor(campos, posiciones, "titulo"));
+        tarea.setDescripcion(valor(campos, posiciones, "descripcion"));
+        String estado = valor(campos, posiciones, "estado");
+        if (!estado.isEmpty()) {
+            tarea.setEstado(estado);
+        }
+        tarea.setPrioridad(valor(campos, posiciones, "prioridad"));
+        String creacion = valor(campos, posiciones, "fechaCreacion");
+        if (!creacion.isEmpty()) {
+            tarea.setFechaCreacion(LocalDate.parse(creacion));
+        }
+        String vencimiento = valor(campos, posiciones, "fechaVencimiento");
+        if (!vencimiento.isEmpty()) {
+            tarea.setFechaVencimiento(LocalDate.parse(vencimiento));
+        }
+        return tarea;
+    }
+    
+    private static String valor(List<String> campos, Map<String, Integer> posiciones, String columna) {
+        Integer posicion = posiciones.get(columna);
+        return posicion != null && posicion < campos.size() ? campos.get(posicion).trim() : "";
+    }
+    
+    private static String vacioANull(String valor) {
+        return valor.isEmpty() ? null : valor;
+    }
+}
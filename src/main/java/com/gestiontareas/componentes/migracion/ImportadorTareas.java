@@ -0,0 +1,394 @@
+package com.gestiontareas.componentes.migracion;
+
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.componentes.gestion.LectorTareasSAX;
+import com.gestiontareas.modelo.Tarea;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Importa tareas desde un fichero XML (elementos tarea, como los exporta
+ * ExportadorTareas) o CSV (extensión .csv, ver FormatoCSVTareas).
+ *
+ * El fichero se lee en streaming (SAX o CSV carácter a carácter) y las
+ * tareas se agrupan en lotes que se guardan con GestorTareas.guardarTareas
+ * desde varios hilos. Como mucho hay dos lotes por hilo en vuelo, así que la
+ * memoria no depende del tamaño del fichero.
+ *
+ * El avance se guarda en un punto de control junto al fichero
+ * (&lt;fichero&gt;.progreso): el número de tareas iniciales cuyos lotes ya se
+ * han guardado. Si un lote falla entero (por ejemplo, al caer la conexión) la
+ * importación se detiene y, al repetirla, continúa desde ese punto. Los lotes
+ * posteriores que llegaran a guardarse se repiten, lo que no duplica tareas:
+ * se guardan por ID, y a las tareas sin ID se les asigna uno derivado de una
+ * clave aleatoria de la importación y de su posición en el fichero. La clave
+ * se guarda en el punto de control, así que solo se repite al reanudar esa
+ * misma importación: importar otro fichero, aunque tenga el mismo nombre, o
+ * volver a importar el mismo, crea tareas nuevas.
+ */
+public class ImportadorTareas {
+    
+    public static final int TAMANO_LOTE_POR_DEFECTO = 500;
+    public static final String EXTENSION_PUNTO_CONTROL = ".progreso";
+    
+    private static final long INTERVALO_PROGRESO_NANOS = TimeUnit.SECONDS.toNanos(2);
+    
+    private final GestorTareas gestorTareas;
+    private final int hilos;
+    private final int tamanoLote;
+    
+    /**
+     * Avance guardado de una importación interrumpida
+     */
+    private static final class PuntoControl {
+        private final long tareas;
+        private final String clave;
+        
+        private PuntoControl(long tareas, String clave) {
+            this.tareas = tareas;
+            this.clave = clave;
+        }
+    }
+    
+    /**
+     * Detiene la lectura del fichero cuando la importación ha fallado
+     */
+    private static final class ImportacionDetenida extends RuntimeException {
+        private ImportacionDetenida() {
+            super("Importación detenida", null, false, false);
+        }
+    }
+    
+    /**
+     * Constructor del importador
+     * @param gestorTareas Gestor con el que se guardan las tareas
+     * @param hilos Número de hilos que guardan lotes en paralelo
+     * @param tamanoLote Número de tareas por lote
+     */
+    public ImportadorTareas(GestorTareas gestorTareas, int hilos, int tamanoLote) {
+        if (hilos < 1 || tamanoLote < 1) {
+            throw new IllegalArgumentException("hilos y tamanoLote deben ser mayores que cero");
+        }
+        this.gestorTareas = gestorTareas;
+        this.hilos = hilos;
+        this.tamanoLote = tamanoLote;
+    }
+    
+    /**
+     * Importa un fichero, continuando desde su punto de control si existe.
+     * Al terminar sin fallos el punto de control se borra.
+     * @param fichero Fichero XML o CSV
+     * @return Resultado de la importación
+     * @throws IOException Si no se puede leer el fichero o no es válido
+     */
+    public ResultadoImportacion importar(Path fichero) throws IOException {
+        Path puntoControl = fichero.resolveSibling(fichero.getFileName() + EXTENSION_PUNTO_CONTROL);
+        PuntoControl anterior = leerPuntoControl(puntoControl, fichero);
+        if (anterior == null) {
+            anterior = new PuntoControl(0, UUID.randomUUID().toString());
+        } else {
+            System.out.println("Reanudando importación desde la tarea " + anterior.tareas);
+        }
+        
+        Importacion importacion = new Importacion(fichero, puntoControl, anterior);
+        boolean leido = false;
+        try {
+            if (esCSV(fichero)) {
+                try (BufferedReader entrada = Files.newBufferedReader(fichero, StandardCharsets.UTF_8)) {
+                    int descartadas = FormatoCSVTareas.leer(entrada, importacion);
+                    if (descartadas > 0) {
+                        System.err.println("Filas del CSV descartadas: " + descartadas);
+                    }
+                }
+            } else {
+                leerXML(fichero, importacion);
+            }
+            importacion.enviarLote();
+            leido = true;
+        } catch (ImportacionDetenida e) {
+            // Un lote ha fallado: se espera a los que están en vuelo
+        } finally {
+            importacion.terminar();
+        }
+        
+        ResultadoImportacion resultado = importacion.resultado(leido);
+        if (resultado.isCompleta()) {
+            Files.deleteIfExists(puntoControl);
+        } else {
+            System.err.println("Importación interrumpida en la tarea " + resultado.getReanudarDesde() +
+                ". Vuelva a ejecutarla para continuar desde ese punto.");
+        }
+        return resultado;
+    }
+    
+    private static void leerXML(Path fichero, Consumer<Tarea> destino) throws IOException {
+        try (InputStream entrada = Files.newInputStream(fichero)) {
+            SAXParserFactory fabrica = SAXParserFactory.newInstance();
+            fabrica.setNamespaceAware(true);
+            // El fichero viene de fuera: sin DTD ni entidades externas
+            fabrica.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            fabrica.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            fabrica.newSAXParser().parse(new BufferedInputStream(entrada), new LectorTareasSAX(destino));
+        } catch (SAXException e) {
+            if (e.getException() instanceof ImportacionDetenida) {
+                throw (ImportacionDetenida) e.getException();
+            }
+            throw new IOException("XML no válido: " + e.getMessage(), e);
+        } catch (ParserConfigurationException e) {
+            throw new IOException("No se pudo crear el parser XML: " + e.getMessage(), e);
+        }
+    }
+    
+    static boolean esCSV(Path fichero) {
+        return fichero.getFileName().toString().toLowerCase().endsWith(".csv");
+    }
+    
+    /**
+     * Lee el punto de control de una importación anterior del mismo fichero
+     * @return Avance guardado, o null si no hay punto de control o no corresponde
+     *         al fichero en su estado actual
+     */
+    private static PuntoControl leerPuntoControl(Path puntoControl, Path fichero) throws IOException {
+        if (!Files.exists(puntoControl)) {
+            return null;
+        }
+        Properties propiedades = new Properties();
+        try (Reader entrada = Files.newBufferedReader(puntoControl, StandardCharsets.UTF_8)) {
+            propiedades.load(entrada);
+        }
+        
+        String clave = propiedades.getProperty("clave");
+        long tareas;
+        long tamano;
+        long modificado;
+        try {
+            tareas = Long.parseLong(propiedades.getProperty("tareas", "0"));
+            tamano = Long.parseLong(propiedades.getProperty("tamano", "-1"));
+            modificado = Long.parseLong(propiedades.getProperty("modificado", "-1"));
+        } catch (NumberFormatException e) {
+            System.err.println("Punto de control no válido (" + puntoControl + "): se importa desde el principio");
+            return null;
+        }
+        if (clave == null || tamano != Files.size(fichero) ||
+                modificado != Files.getLastModifiedTime(fichero).toMillis()) {
+            System.err.println("El fichero ha cambiado desde la importación interrumpida: se importa desde el principio");
+            return null;
+        }
+        return new PuntoControl(tareas, clave);
+    }
+    
+    /**
+     * Estado de una importación en curso. Recibe las tareas del lector en el
+     * hilo que lee el fichero y las reparte en lotes a los hilos de trabajo.
+     */
+    private final class Importacion implements Consumer<Tarea> {
+        
+        private final Path fichero;
+        private final Path puntoControl;
+        private final long yaImportadas;
+        private final String clave;
+        private final long tamanoFichero;
+        private final long modificadoFichero;
+        private final long inicioNanos = System.nanoTime();
+        private final ExecutorService trabajadores;
+        private final Semaphore enVuelo = new Semaphore(hilos * 2);
+        
+        // Solo los usa el hilo lector
+        private long posicion;
+        private List<Tarea> lote = new ArrayList<>(tamanoLote);
+        private long inicioLote;
+        
+        // Compartidos con los hilos de trabajo, protegidos por this
+        private final TreeMap<Long, Long> lotesTerminados = new TreeMap<>();
+        private long importadas;
+        private long guardadas;
+        private long errores;
+        private volatile boolean fallida;
+        private long ultimoInformeNanos = System.nanoTime();
+        
+        private Importacion(Path fichero, Path puntoControl, PuntoControl anterior) throws IOException {
+            this.fichero = fichero;
+            this.puntoControl = puntoControl;
+            this.yaImportadas = anterior.tareas;
+            this.clave = anterior.clave;
+            this.tamanoFichero = Files.size(fichero);
+            this.modificadoFichero = Files.getLastModifiedTime(fichero).toMillis();
+            this.importadas = yaImportadas;
+            this.inicioLote = yaImportadas;
+            
+            // La clave queda guardada antes de enviar ningún lote, para que un
+            // fallo en cualquier momento se reanude con los mismos IDs
+            guardarPuntoControl();
+            
+            AtomicInteger contador = new AtomicInteger();
+            this.trabajadores = Executors.newFixedThreadPool(hilos, tarea -> {
+                Thread hilo = new Thread(tarea, "importador-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        
+        @Override
+        public void accept(Tarea tarea) {
+            long actual = posicion++;
+            if (actual < yaImportadas) {
+                return;
+            }
+            if (tarea.getId() == null || tarea.getId().isEmpty()) {
+                // ID estable al reanudar esta importación, distinto en cualquier otra
+                tarea.setId(UUID.nameUUIDFromBytes(
+                    (clave + ":" + actual).getBytes(StandardCharsets.UTF_8)).toString());
+            }
+            lote.add(tarea);
+            if (lote.size() == tamanoLote) {
+                enviarLote();
+            }
+        }
+        
+        /**
+         * Entrega el lote actual a un hilo de trabajo, esperando si ya hay
+         * demasiados en vuelo
+         */
+        private void enviarLote() {
+            if (fallida) {
+                throw new ImportacionDetenida();
+            }
+            if (lote.isEmpty()) {
+                return;
+            }
+            List<Tarea> enviado = lote;
+            long inicio = inicioLote;
+            lote = new ArrayList<>(tamanoLote);
+            inicioLote += enviado.size();
+            
+            try {
+                enVuelo.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fallida = true;
+                throw new ImportacionDetenida();
+            }
+            trabajadores.execute(() -> {
+                try {
+                    terminarLote(inicio, enviado, gestorTareas.guardarTareas(enviado));
+                } catch (RuntimeException e) {
+                    System.err.println("Error al guardar lote de importación: " + e.getMessage());
+                    terminarLote(inicio, enviado, List.of());
+                } finally {
+                    enVuelo.release();
+                }
+            });
+        }
+        
+        /**
+         * Anota el resultado de un lote y avanza el punto de control hasta el
+         * primer lote que falte por terminar
+         */
+        private synchronized void terminarLote(long inicio, List<Tarea> enviado, List<Boolean> resultados) {
+            int correctas = 0;
+            for (Boolean correcta : resultados) {
+                if (Boolean.TRUE.equals(correcta)) {
+                    correctas++;
+                }
+            }
+            if (correctas == 0) {
+                // Ninguna tarea guardada: fallo del servidor o de la conexión
+                System.err.println("Falló el lote que empieza en la tarea " + inicio + "; se detiene la importación");
+                fallida = true;
+                return;
+            }
+            
+            guardadas += correctas;
+            errores += enviado.size() - correctas;
+            lotesTerminados.put(inicio, inicio + enviado.size());
+            Long fin;
+            boolean avanza = false;
+            while ((fin = lotesTerminados.remove(importadas)) != null) {
+                importadas = fin;
+                avanza = true;
+            }
+            if (avanza) {
+                guardarPuntoControl();
+            }
+            
+            long ahora = System.nanoTime();
+            if (ahora - ultimoInformeNanos >= INTERVALO_PROGRESO_NANOS) {
+                ultimoInformeNanos = ahora;
+                double segundos = (ahora - inicioNanos) / 1e9;
+                System.out.printf("Importación: %,d tareas guardadas, %,d errores (%.0f tareas/s)%n",
+                    guardadas, errores, guardadas / segundos);
+            }
+        }
+        
+        /**
+         * Guarda el avance en un fichero temporal y lo mueve sobre el punto de
+         * control, para no dejarlo a medio escribir si el proceso termina
+         */
+        private void guardarPuntoControl() {
+            Properties propiedades = new Properties();
+            propiedades.setProperty("fichero", fichero.toAbsolutePath().toString());
+            propiedades.setProperty("tamano", Long.toString(tamanoFichero));
+            propiedades.setProperty("modificado", Long.toString(modificadoFichero));
+            propiedades.setProperty("clave", clave);
+            propiedades.setProperty("tareas", Long.toString(importadas));
+            
+            Path temporal = puntoControl.resolveSibling(puntoControl.getFileName() + ".tmp");
+            try {
+                try (Writer salida = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+                    propiedades.store(salida, "Importación de tareas en curso");
+                }
+                Files.move(temporal, puntoControl, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("No se pudo guardar el punto de control: " + e.getMessage());
+            }
+        }
+        
+        /**
+         * Espera a que terminen los lotes en vuelo
+         */
+        private void terminar() {
+            trabajadores.shutdown();
+            try {
+                while (!trabajadores.awaitTermination(1, TimeUnit.MINUTES)) {
+                    System.out.println("Esperando a los lotes en curso...");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                trabajadores.shutdownNow();
+                fallida = true;
+            }
+        }
+        
+        private synchronized ResultadoImportacion resultado(boolean leido) {
+            boolean completa = leido && !fallida;
+            return new ResultadoImportacion(yaImportadas, guardadas, errores, completa, importadas,
+                Duration.ofNanos(System.nanoTime() - inicioNanos));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.gestiontareas.componentes.migracion;
+
+import java.time.Duration;
+
+/**
+ * Recuento final de una importación
+ */
+public class ResultadoImportacion {
+    
+    private final long omitidas;
+    private final long guardadas;
+    private final long errores;
+    private final boolean completa;
+    private final long reanudarDesde;
+    private final Duration duracion;
+    
+    /**
+     * Constructor del resultado
+     * @param omitidas Tareas saltadas por estar ya importadas en una ejecución anterior
+     * @param guardadas Tareas guardadas en esta ejecución
+     * @param errores Tareas que el servidor rechazó
+     * @param completa true si se leyó todo el fichero sin fallos de lote
+     * @param reanudarDesde Tareas del fichero ya importadas, desde donde continuaría otra ejecución
+     * @param duracion Tiempo total de la importación
+     */
+    public ResultadoImportacion(long omitidas, long guardadas, long errores, boolean completa,
+                                long reanudarDesde, Duration duracion) {
+        this.omitidas = omitidas;
+        this.guardadas = guardadas;
+        this.errores = errores;
+        this.completa = completa;
+        this.reanudarDesde = reanudarDesde;
+        this.duracion = duracion;
+    }
+    
+    public long getOmitidas() {
+        return omitidas;
+    }
+    
+    public long getGuardadas() {
+        return guardadas;
+    }
+    
+    public long getErrores() {
+        return errores;
+    }
+    
+    public boolean isCompleta() {
+        return completa;
+    }
+    
+    public long getReanudarDesde() {
+        return reanudarDesde;
+    }
+    
+    public Duration getDuracion() {
+        return duracion;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoImportacion{" +
+                "guardadas=" + guardadas +
+                ", errores=" + errores +
+                ", omitidas=" + omitidas +
+                ", completa=" + completa +
+                (completa ? "" : ", reanudarDesde=" + reanudarDesde) +
+                ", duracion=" + duracion.toMillis() + "ms" +
+                '}';
+    }
+}
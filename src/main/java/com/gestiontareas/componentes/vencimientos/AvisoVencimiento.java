@@ -0,0 +1,61 @@
+package com.gestiontareas.componentes.vencimientos;
+
+import java.time.LocalDate;
+
+/**
+ * Aviso de que una tarea vence hoy o ya ha vencido
+ */
+public class AvisoVencimiento {
+    
+    /**
+     * Momento del vencimiento que se avisa
+     */
+    public enum Tipo {
+        // El día de la fecha de vencimiento
+        VENCE_HOY,
+        // A partir del día siguiente a la fecha de vencimiento
+        VENCIDA
+    }
+    
+    private final String id;
+    private final String titulo;
+    private final LocalDate fechaVencimiento;
+    private final Tipo tipo;
+    
+    /**
+     * Constructor del aviso
+     * @param id ID de la tarea
+     * @param titulo Título de la tarea
+     * @param fechaVencimiento Fecha de vencimiento de la tarea
+     * @param tipo Momento del vencimiento
+     */
+    public AvisoVencimiento(String id, String titulo, LocalDate fechaVencimiento, Tipo tipo) {
+        this.id = id;
+        this.titulo = titulo;
+        this.fechaVencimiento = fechaVencimiento;
+        this.tipo = tipo;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getTitulo() {
+        return titulo;
+    }
+    
+    public LocalDate getFechaVencimiento() {
+        return fechaVencimiento;
+    }
+    
+    public Tipo getTipo() {
+        return tipo;
+    }
+    
+    @Override
+    public String toString() {
+        return tipo == Tipo.VENCE_HOY ?
+            "La tarea '" + titulo + "' vence hoy" :
+            "La tarea '" + titulo + "' venció el " + fechaVencimiento;
+    }
+}
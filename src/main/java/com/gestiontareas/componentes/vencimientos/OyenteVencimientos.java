@@ -0,0 +1,15 @@
+package com.gestiontareas.componentes.vencimientos;
+
+/**
+ * Recibe los avisos de PlanificadorVencimientos. Se llama desde el hilo del
+ * planificador: una interfaz Swing debe pasar el aviso al hilo de eventos.
+ */
+@FunctionalInterface
+public interface OyenteVencimientos {
+    
+    /**
+     * Una tarea vence hoy o ha vencido
+     * @param aviso Datos del aviso
+     */
+    void avisar(AvisoVencimiento aviso);
+}
@@ -0,0 +1,386 @@
+package com.gestiontareas.componentes.vencimientos;
+
+import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.componentes.gestion.OyenteCambiosTareas;
+import com.gestiontareas.modelo.EstadoTarea;
+import com.gestiontareas.modelo.Tarea;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Componente que avisa cuando una tarea vence (el día de su fecha de
+ * vencimiento) y cuando queda vencida (al día siguiente), sin consultar
+ * periódicamente la base de datos.
+ *
+ * Al iniciarse carga una sola vez las tareas no completadas con fecha de
+ * vencimiento y coloca su próximo aviso en una cola de prioridad ordenada
+ * por día. Después se mantiene al día con los cambios que notifica
+ * GestorTareas: un alta, modificación o baja cuesta O(log n) y no toca la
+ * base de datos. Un único hilo duerme hasta el día del primer aviso de la
+ * cola, así que el trabajo es proporcional a los avisos, no a las tareas.
+ *
+ * Las entradas de la cola no se borran al cambiar una tarea: se descartan
+ * al salir si ya no corresponden a su seguimiento actual, y la cola se
+ * reconstruye si los descartes acumulados superan a las entradas válidas.
+ */
+public class PlanificadorVencimientos implements OyenteCambiosTareas, AutoCloseable {
+    
+    // Espera máxima entre comprobaciones: los temporizadores no avanzan con
+    // el equipo suspendido, así que se revisa la cola al menos cada hora
+    private static final long ESPERA_MAXIMA_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int HOLGURA_COLA = 64;
+    
+    /**
+     * Fase del seguimiento de una tarea
+     */
+    private enum Fase {
+        PROGRAMADA, VENCE_HOY, VENCIDA
+    }
+    
+    /**
+     * Tarea seguida, con la fecha de vencimiento como día desde la época
+     */
+    private static final class Seguimiento {
+        private final String id;
+        private String titulo;
+        private final int dia;
+        private Fase fase = Fase.PROGRAMADA;
+        
+        private Seguimiento(String id, String titulo, int dia) {
+            this.id = id;
+            this.titulo = titulo;
+            this.dia = dia;
+        }
+        
+        /**
+         * Día del próximo aviso, o Long.MIN_VALUE si ya no quedan avisos
+         */
+        private long diaEvento() {
+            if (fase == Fase.PROGRAMADA) {
+                return dia;
+            }
+            if (fase == Fase.VENCE_HOY) {
+                return dia + 1L;
+            }
+            return Long.MIN_VALUE;
+        }
+    }
+    
+    /**
+     * Entrada de la cola: un aviso previsto para un día
+     */
+    private static final class Evento implements Comparable<Evento> {
+        private final Seguimiento seguimiento;
+        private final long dia;
+        
+        private Evento(Seguimiento seguimiento) {
+            this.seguimiento = seguimiento;
+            this.dia = seguimiento.diaEvento();
+        }
+        
+        @Override
+        public int compareTo(Evento otro) {
+            return Long.compare(dia, otro.dia);
+        }
+    }
+    
+    private final GestorTareas gestorTareas;
+    private final Clock reloj;
+    private final ScheduledExecutorService hilo;
+    private final List<OyenteVencimientos> oyentes = new CopyOnWriteArrayList<>();
+    
+    // Estado protegido por el monitor del planificador
+    private final PriorityQueue<Evento> cola = new PriorityQueue<>();
+    private final Map<String, Seguimiento> seguimientos = new HashMap<>();
+    private Set<String> cambiadasDuranteCarga;
+    private ScheduledFuture<?> despertar;
+    private long diaDespertar = Long.MIN_VALUE;
+    private int vencenHoy;
+    private int vencidas;
+    
+    /**
+     * Constructor del planificador con el reloj del sistema
+     * @param gestorTareas Gestor del que se cargan las tareas y se reciben los cambios
+     */
+    public PlanificadorVencimientos(GestorTareas gestorTareas) {
+        this(gestorTareas, Clock.systemDefaultZone());
+    }
+    
+    /**
+     * Constructor del planificador
+     * @param gestorTareas Gestor del que se cargan las tareas y se reciben los cambios
+     * @param reloj Reloj y zona horaria con los que se decide el día actual
+     */
+    public PlanificadorVencimientos(GestorTareas gestorTareas, Clock reloj) {
+        this.gestorTareas = gestorTareas;
+        this.reloj = reloj;
+        this.hilo = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "vencimientos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+    
+    /**
+     * Empieza a recibir cambios del gestor y carga en segundo plano las
+     * tareas con vencimiento pendiente. Las tareas ya vencidas se avisan en
+     * cuanto termina la carga.
+     */
+    public void iniciar() {
+        synchronized (this) {
+            cambiadasDuranteCarga = new HashSet<>();
+        }
+        gestorTareas.agregarOyente(this);
+        hilo.execute(this::cargar);
+    }
+    
+    /**
+     * Registra un receptor de avisos
+     * @param oyente Receptor a registrar
+     */
+    public void agregarOyente(OyenteVencimientos oyente) {
+        oyentes.add(oyente);
+    }
+    
+    /**
+     * Retira un receptor de avisos
+     * @param oyente Receptor a retirar
+     */
+    public void quitarOyente(OyenteVencimientos oyente) {
+        oyentes.remove(oyente);
+    }
+    
+    @Override
+    public void tareaGuardada(Tarea tarea) {
+        synchronized (this) {
+            String id = tarea.getId();
+            anotarCambio(id);
+            Seguimiento anterior = seguimientos.get(id);
+            
+            boolean pendiente = tarea.getEstadoTarea() != EstadoTarea.COMPLETADA
+                && tarea.getDiaVencimiento() != Tarea.SIN_FECHA;
+            if (pendiente && anterior != null && anterior.dia == tarea.getDiaVencimiento()) {
+                // Misma fecha: se conserva la fase para no repetir avisos
+                anterior.titulo = tarea.getTitulo();
+                return;
+            }
+            
+            quitar(anterior);
+            if (pendiente) {
+                seguir(id, tarea.getTitulo(), tarea.getDiaVencimiento());
+            }
+        }
+        hilo.execute(this::procesar);
+    }
+    
+    @Override
+    public void tareaEliminada(String id) {
+        synchronized (this) {
+            anotarCambio(id);
+            quitar(seguimientos.get(id));
+        }
+    }
+    
+    /**
+     * Obtiene el número de tareas seguidas que vencen hoy
+     * @return Tareas avisadas como VENCE_HOY y aún no completadas
+     */
+    public synchronized int getVencenHoy() {
+        return vencenHoy;
+    }
+    
+    /**
+     * Obtiene el número de tareas seguidas que ya han vencido
+     * @return Tareas avisadas como VENCIDA y aún no completadas
+     */
+    public synchronized int getVencidas() {
+        return vencidas;
+    }
+    
+    /**
+     * Obtiene el número de tareas con vencimiento pendiente que se siguen
+     * @return Tareas seguidas, avisadas o no
+     */
+    public synchronized int getTareasSeguidas() {
+        return seguimientos.size();
+    }
+    
+    /**
+     * Deja de recibir cambios y detiene el hilo del planificador
+     */
+    @Override
+    public void close() {
+        gestorTareas.quitarOyente(this);
+        hilo.shutdownNow();
+    }
+    
+    /**
+     * Carga inicial de las tareas con vencimiento pendiente. Los cambios
+     * recibidos mientras tanto son más recientes que la consulta y prevalecen.
+     */
+    private void cargar() {
+        List<Tarea> tareas = gestorTareas.obtenerVencimientosPendientes();
+        int cargadas = 0;
+        synchronized (this) {
+            for (Tarea tarea : tareas) {
+                if (!cambiadasDuranteCarga.contains(tarea.getId())
+                        && tarea.getDiaVencimiento() != Tarea.SIN_FECHA) {
+                    seguir(tarea.getId(), tarea.getTitulo(), tarea.getDiaVencimiento());
+                    cargadas++;
+                }
+            }
+            cambiadasDuranteCarga = null;
+        }
+        System.out.println("Vencimientos pendientes cargados: " + cargadas);
+        procesar();
+    }
+    
+    /**
+     * Saca de la cola los avisos cuyo día ha llegado, los entrega y vuelve a
+     * programar el hilo para el siguiente. Se ejecuta en el hilo del planificador.
+     */
+    private void procesar() {
+        List<AvisoVencimiento> avisos = new ArrayList<>();
+        synchronized (this) {
+            long hoy = hoy();
+            Evento evento;
+            while ((evento = cola.peek()) != null && evento.dia <= hoy) {
+                cola.poll();
+                Seguimiento seguimiento = evento.seguimiento;
+                if (seguimientos.get(seguimiento.id) != seguimiento || seguimiento.diaEvento() != evento.dia) {
+                    // La tarea cambió o ya no se sigue
+                    continue;
+                }
+                
+                if (seguimiento.fase == Fase.PROGRAMADA && seguimiento.dia >= hoy) {
+                    cambiarFase(seguimiento, Fase.VENCE_HOY);
+                    avisos.add(aviso(seguimiento, AvisoVencimiento.Tipo.VENCE_HOY));
+                    cola.add(new Evento(seguimiento));
+                } else {
+                    // Si el día de vencimiento ya pasó se avisa directamente como vencida
+                    cambiarFase(seguimiento, Fase.VENCIDA);
+                    avisos.add(aviso(seguimiento, AvisoVencimiento.Tipo.VENCIDA));
+                }
+            }
+            compactar();
+            programar();
+        }
+        
+        for (AvisoVencimiento aviso : avisos) {
+            for (OyenteVencimientos oyente : oyentes) {
+                try {
+                    oyente.avisar(aviso);
+                } catch (RuntimeException e) {
+                    System.err.println("Error al entregar aviso de vencimiento: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Programa el hilo para el día del primer aviso de la cola, si ha cambiado
+     */
+    private void programar() {
+        Evento primero = cola.peek();
+        if (primero == null) {
+            cancelarDespertar();
+            return;
+        }
+        if (despertar != null && !despertar.isDone() && primero.dia == diaDespertar) {
+            return;
+        }
+        
+        cancelarDespertar();
+        long inicioDia = LocalDate.ofEpochDay(primero.dia)
+            .atStartOfDay(reloj.getZone()).toInstant().toEpochMilli();
+        long espera = Math.max(0, Math.min(inicioDia - reloj.millis(), ESPERA_MAXIMA_MS));
+        try {
+            despertar = hilo.schedule(this::procesar, espera, TimeUnit.MILLISECONDS);
+            diaDespertar = primero.dia;
+        } catch (RejectedExecutionException e) {
+            // Planificador cerrado
+        }
+    }
+    
+    private void cancelarDespertar() {
+        if (despertar != null) {
+            despertar.cancel(false);
+            despertar = null;
+        }
+    }
+    
+    /**
+     * Reconstruye la cola con las entradas válidas si las obsoletas son mayoría
+     */
+    private void compactar() {
+        if (cola.size() <= 2 * seguimientos.size() + HOLGURA_COLA) {
+            return;
+        }
+        cola.clear();
+        for (Seguimiento seguimiento : seguimientos.values()) {
+            if (seguimiento.fase != Fase.VENCIDA) {
+                cola.add(new Evento(seguimiento));
+            }
+        }
+        diaDespertar = Long.MIN_VALUE;
+    }
+    
+    private void seguir(String id, String titulo, int dia) {
+        Seguimiento seguimiento = new Seguimiento(id, titulo, dia);
+        seguimientos.put(id, seguimiento);
+        cola.add(new Evento(seguimiento));
+    }
+    
+    private void quitar(Seguimiento seguimiento) {
+        if (seguimiento != null) {
+            seguimientos.remove(seguimiento.id);
+            cambiarFase(seguimiento, null);
+        }
+    }
+    
+    /**
+     * Cambia la fase de un seguimiento manteniendo los contadores (null al dejar de seguirlo)
+     */
+    private void cambiarFase(Seguimiento seguimiento, Fase nueva) {
+        if (seguimiento.fase == Fase.VENCE_HOY) {
+            vencenHoy--;
+        } else if (seguimiento.fase == Fase.VENCIDA) {
+            vencidas--;
+        }
+        if (nueva == Fase.VENCE_HOY) {
+            vencenHoy++;
+        } else if (nueva == Fase.VENCIDA) {
+            vencidas++;
+        }
+        seguimiento.fase = nueva;
+    }
+    
+    private void anotarCambio(String id) {
+        if (cambiadasDuranteCarga != null) {
+            cambiadasDuranteCarga.add(id);
+        }
+    }
+    
+    private static AvisoVencimiento aviso(Seguimiento seguimiento, AvisoVencimiento.Tipo tipo) {
+        return new AvisoVencimiento(seguimiento.id, seguimiento.titulo,
+            LocalDate.ofEpochDay(seguimiento.dia), tipo);
+    }
+    
+    private long hoy() {
+        return LocalDate.now(reloj).toEpochDay();
+    }
+}
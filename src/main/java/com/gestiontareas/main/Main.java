@@ -1,10 +1,18 @@
 package com.gestiontareas.main;
 
 import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.bd.ConfiguracionBD;
+import com.gestiontareas.componentes.cache.GestorTareasConCache;
 import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.componentes.migracion.ExportadorTareas;
+import com.gestiontareas.componentes.migracion.ImportadorTareas;
+import com.gestiontareas.componentes.migracion.ResultadoImportacion;
 import com.gestiontareas.ui.VentanaPrincipal;
 
 import javax.swing.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 /**
  * Clase principal de la aplicación de gestión de tareas
@@ -15,10 +23,6 @@ import javax.swing.*;
  */
 public class Main {
     
-    // Credenciales de eXist-db
-    private static final String USUARIO = "admin";
-    private static final String PASSWORD = "admin";
-    
     public static void main(String[] args) {
         System.out.println("==============================================");
         System.out.println("  Sistema de Gestión de Tareas - eXist-db");
@@ -26,6 +30,11 @@ public class Main {
         System.out.println("  Autor: Esteban Sanchez");
         System.out.println("==============================================\n");
         
+        // Importación y exportación desde la línea de comandos, sin interfaz gráfica
+        if (args.length > 0) {
+            System.exit(ejecutarComando(args));
+        }
+        
         // Configurar el Look and Feel del sistema
         configurarLookAndFeel();
         
@@ -49,7 +58,21 @@ public class Main {
         
         // PASO 1: Crear el componente de conexión a BD
         System.out.println("PASO 1: Creando componente ConectorBD...");
-        ConectorBD conectorBD = new ConectorBD(USUARIO, PASSWORD);
+        ConfiguracionBD configuracion;
+        int capacidadCache;
+        long vidaCache;
+        long periodoMetricas;
+        try {
+            // Todos los valores se validan antes de conectar
+            configuracion = ConfiguracionBD.cargar();
+            capacidadCache = configuracion.getPropiedadEntera("cache.capacidad", 0, 0);
+            vidaCache = configuracion.getPropiedadLarga("cache.vida", 300, 1);
+            periodoMetricas = configuracion.getPropiedadLarga("metricas.periodo", 0, 0);
+        } catch (IllegalArgumentException e) {
+            mostrarErrorInicio("Configuración no válida:\n" + e.getMessage());
+            return;
+        }
+        ConectorBD conectorBD = new ConectorBD(configuracion);
         
         // PASO 2: Conectar con la base de datos
         System.out.println("PASO 2: Conectando con eXist-db...");
@@ -60,8 +83,8 @@ public class Main {
                 String mensaje = "No se pudo conectar con eXist-db.\n\n" +
                                "Verifique que:\n" +
                                "1. eXist-db esté instalado y en ejecución\n" +
-                               "2. El servicio esté escuchando en: localhost:8080\n" +
-                               "3. Las credenciales sean correctas (usuario: admin, password: admin)";
+                               "2. El servicio esté escuchando en: " + configuracion.getUri() + "\n" +
+                               "3. Las credenciales sean correctas (usuario: " + configuracion.getUsuario() + ")";
                 mostrarErrorInicio(mensaje);
                 return;
             }
@@ -70,16 +93,34 @@ public class Main {
             
         } catch (Exception e) {
             String mensaje = "Error al conectar con eXist-db:\n" + e.getMessage() + "\n\n" +
-                           "Asegúrese de que eXist-db esté en ejecución en localhost:8080";
+                           "Asegúrese de que eXist-db esté en ejecución en " + configuracion.getUri();
             mostrarErrorInicio(mensaje);
             return;
         }
         
         // PASO 3: Crear el componente gestor de tareas
         System.out.println("PASO 3: Creando componente GestorTareas...");
-        GestorTareas gestorTareas = new GestorTareas(conectorBD);
+        GestorTareas gestorTareas;
+        try {
+            if (capacidadCache > 0) {
+                gestorTareas = new GestorTareasConCache(conectorBD, capacidadCache, Duration.ofSeconds(vidaCache));
+            } else {
+                gestorTareas = new GestorTareas(conectorBD);
+            }
+        } catch (IllegalArgumentException e) {
+            // bd.almacenamiento o bd.fragmentos no válidos
+            conectorBD.desconectar();
+            mostrarErrorInicio("Configuración no válida:\n" + e.getMessage());
+            return;
+        }
         System.out.println("✓ Gestor de tareas inicializado\n");
         
+        // Métricas por JMX y, si se pide, resumen periódico en la salida estándar
+        gestorTareas.getMetricas().registrarJMX();
+        if (periodoMetricas > 0) {
+            gestorTareas.getMetricas().iniciarInstantaneas(Duration.ofSeconds(periodoMetricas), System.out::println);
+        }
+        
         // PASO 4: Crear y mostrar la interfaz gráfica
         System.out.println("PASO 4: Inicializando interfaz gráfica...");
         VentanaPrincipal ventana = new VentanaPrincipal(conectorBD, gestorTareas);
@@ -87,6 +128,8 @@ public class Main {
         // Agregar hook para cerrar la conexión al salir
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println("\nCerrando aplicación...");
+            gestorTareas.getMetricas().detenerInstantaneas();
+            System.out.println(gestorTareas.getMetricas().instantanea());
             conectorBD.desconectar();
             System.out.println("Aplicación cerrada correctamente");
         }));
@@ -98,6 +141,82 @@ public class Main {
         System.out.println("==============================================\n");
     }
     
+    /**
+     * Ejecuta un comando sin interfaz gráfica:
+     * importar &lt;fichero&gt; [--hilos N] [--lote N] o exportar &lt;fichero&gt;
+     * @param args Argumentos de la línea de comandos
+     * @return Código de salida del proceso
+     */
+    private static int ejecutarComando(String[] args) {
+        String comando = args[0];
+        if (args.length < 2 || !("importar".equals(comando) || "exportar".equals(comando))) {
+            System.err.println("Uso: importar <fichero.xml|fichero.csv> [--hilos N] [--lote N]");
+            System.err.println("     exportar <fichero.xml|fichero.csv>");
+            return 2;
+        }
+        Path fichero = Paths.get(args[1]);
+        int hilos = 0;
+        int lote = ImportadorTareas.TAMANO_LOTE_POR_DEFECTO;
+        try {
+            for (int i = 2; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Falta el valor de " + args[i]);
+                }
+                if ("--hilos".equals(args[i])) {
+                    hilos = Integer.parseInt(args[i + 1]);
+                } else if ("--lote".equals(args[i])) {
+                    lote = Integer.parseInt(args[i + 1]);
+                } else {
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+                }
+                if (Integer.parseInt(args[i + 1]) < 1) {
+                    throw new IllegalArgumentException(args[i] + " debe ser mayor que cero");
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error en los argumentos: " + e.getMessage());
+            return 2;
+        }
+        
+        ConfiguracionBD configuracion;
+        try {
+            configuracion = ConfiguracionBD.cargar();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Configuración no válida: " + e.getMessage());
+            return 2;
+        }
+        // Cada hilo de importación ocupa una colección del pool mientras guarda un lote
+        if (hilos == 0) {
+            hilos = Math.min(Runtime.getRuntime().availableProcessors(), configuracion.getTamanoPool());
+        } else if (hilos > configuracion.getTamanoPool()) {
+            System.err.println("Aviso: --hilos " + hilos + " supera el tamaño del pool (bd.pool=" +
+                configuracion.getTamanoPool() + "); los hilos sobrantes esperarán una colección libre");
+        }
+        ConectorBD conectorBD = new ConectorBD(configuracion);
+        try {
+            if (!conectorBD.conectar()) {
+                System.err.println("No se pudo conectar con eXist-db en " + configuracion.getUri());
+                return 1;
+            }
+            GestorTareas gestorTareas = new GestorTareas(conectorBD);
+            
+            if ("importar".equals(comando)) {
+                ResultadoImportacion resultado =
+                    new ImportadorTareas(gestorTareas, hilos, lote).importar(fichero);
+                System.out.println(resultado);
+                return resultado.isCompleta() ? 0 : 1;
+            }
+            new ExportadorTareas(gestorTareas).exportar(fichero);
+            return 0;
+            
+        } catch (Exception e) {
+            System.err.println("Error al " + comando + " " + fichero + ": " + e.getMessage());
+            return 1;
+        } finally {
+            conectorBD.desconectar();
+        }
+    }
+    
     /**
      * Configura el Look and Feel de la interfaz
      */
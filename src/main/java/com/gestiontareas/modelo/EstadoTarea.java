@@ -0,0 +1,47 @@
+package com.gestiontareas.modelo;
+
+/**
+ * Valores posibles del campo estado de una tarea. En XML y en las consultas
+ * se usa el valor textual de cada constante.
+ */
+public enum EstadoTarea {
+    PENDIENTE("pendiente"),
+    EN_PROCESO("en_proceso"),
+    COMPLETADA("completada");
+
+    // values() copia el array en cada llamada
+    private static final EstadoTarea[] VALORES = values();
+
+    private final String valor;
+
+    EstadoTarea(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    /**
+     * Obtiene la constante correspondiente a un valor textual
+     * @param valor Valor tal como aparece en el XML (null o vacío si no hay)
+     * @return Constante correspondiente, o null si el valor es null o vacío
+     * @throws IllegalArgumentException Si el valor no es válido
+     */
+    public static EstadoTarea desdeValor(String valor) {
+        if (valor == null || valor.isEmpty()) {
+            return null;
+        }
+        for (EstadoTarea constante : VALORES) {
+            if (constante.valor.equals(valor)) {
+                return constante;
+            }
+        }
+        throw new IllegalArgumentException("Valor de estado no válido: " + valor);
+    }
+
+    @Override
+    public String toString() {
+        return valor;
+    }
+}
@@ -1,41 +1,73 @@
 package com.gestiontareas.modelo;
 
 import java.time.LocalDate;
-
+import java.util.UUID;
+
+/**
+ * Tarea con representación compacta: estado y prioridad son enumerados
+ * compartidos, el ID se guarda como dos long cuando es un UUID canónico
+ * (el formato que generan GestorTareas y UUID.toString) y las fechas como
+ * días desde la época. Los getters de siempre siguen devolviendo String y
+ * LocalDate, construidos a partir de esa representación.
+ */
 public class Tarea {
-    private String id;
+    // Valor de los campos de día cuando la fecha es null
+    public static final int SIN_FECHA = Integer.MIN_VALUE;
+
+    private long idAlto;
+    private long idBajo;
+    private String idTexto; // Solo si el ID no es un UUID canónico
+    private boolean idCompacto;
     private String titulo;
     private String descripcion;
-    private String estado; // "pendiente", "en_proceso", "completada"
-    private String prioridad; // "baja", "media", "alta"
-    private LocalDate fechaCreacion;
-    private LocalDate fechaVencimiento;
+    private EstadoTarea estado;
+    private PrioridadTarea prioridad;
+    private int diaCreacion = SIN_FECHA;
+    private int diaVencimiento = SIN_FECHA;
 
     // Constructor vacío
     public Tarea() {
-        this.fechaCreacion = LocalDate.now();
-        this.estado = "pendiente";
+        this.diaCreacion = (int) LocalDate.now().toEpochDay();
+        this.estado = EstadoTarea.PENDIENTE;
     }
 
     // Constructor completo
-    public Tarea(String id, String titulo, String descripcion, String estado, 
+    public Tarea(String id, String titulo, String descripcion, String estado,
                  String prioridad, LocalDate fechaVencimiento) {
-        this.id = id;
+        this(id, titulo, descripcion, EstadoTarea.desdeValor(estado),
+             PrioridadTarea.desdeValor(prioridad), fechaVencimiento);
+    }
+
+    public Tarea(String id, String titulo, String descripcion, EstadoTarea estado,
+                 PrioridadTarea prioridad, LocalDate fechaVencimiento) {
+        setId(id);
         this.titulo = titulo;
         this.descripcion = descripcion;
         this.estado = estado;
         this.prioridad = prioridad;
-        this.fechaCreacion = LocalDate.now();
-        this.fechaVencimiento = fechaVencimiento;
+        this.diaCreacion = (int) LocalDate.now().toEpochDay();
+        setFechaVencimiento(fechaVencimiento);
     }
 
     // Getters y Setters
     public String getId() {
-        return id;
+        if (idCompacto) {
+            return new UUID(idAlto, idBajo).toString();
+        }
+        return idTexto;
     }
 
     public void setId(String id) {
-        this.id = id;
+        idCompacto = id != null && esUUIDCanonico(id);
+        if (idCompacto) {
+            idAlto = hexadecimal(id, 0, 8) << 32 | hexadecimal(id, 9, 13) << 16 | hexadecimal(id, 14, 18);
+            idBajo = hexadecimal(id, 19, 23) << 48 | hexadecimal(id, 24, 36);
+            idTexto = null;
+        } else {
+            idAlto = 0;
+            idBajo = 0;
+            idTexto = id;
+        }
     }
 
     public String getTitulo() {
@@ -55,45 +87,115 @@ public class Tarea {
     }
 
     public String getEstado() {
-        return estado;
+        return estado != null ? estado.getValor() : null;
     }
 
+    /**
+     * @throws IllegalArgumentException Si el estado no es uno de los valores válidos
+     */
     public void setEstado(String estado) {
+        this.estado = EstadoTarea.desdeValor(estado);
+    }
+
+    public EstadoTarea getEstadoTarea() {
+        return estado;
+    }
+
+    public void setEstadoTarea(EstadoTarea estado) {
         this.estado = estado;
     }
 
     public String getPrioridad() {
-        return prioridad;
+        return prioridad != null ? prioridad.getValor() : null;
     }
 
+    /**
+     * @throws IllegalArgumentException Si la prioridad no es uno de los valores válidos
+     */
     public void setPrioridad(String prioridad) {
+        this.prioridad = PrioridadTarea.desdeValor(prioridad);
+    }
+
+    public PrioridadTarea getPrioridadTarea() {
+        return prioridad;
+    }
+
+    public void setPrioridadTarea(PrioridadTarea prioridad) {
         this.prioridad = prioridad;
     }
 
     public LocalDate getFechaCreacion() {
-        return fechaCreacion;
+        return diaCreacion != SIN_FECHA ? LocalDate.ofEpochDay(diaCreacion) : null;
     }
 
     public void setFechaCreacion(LocalDate fechaCreacion) {
-        this.fechaCreacion = fechaCreacion;
+        this.diaCreacion = aDia(fechaCreacion);
     }
 
     public LocalDate getFechaVencimiento() {
-        return fechaVencimiento;
+        return diaVencimiento != SIN_FECHA ? LocalDate.ofEpochDay(diaVencimiento) : null;
     }
 
     public void setFechaVencimiento(LocalDate fechaVencimiento) {
-        this.fechaVencimiento = fechaVencimiento;
+        this.diaVencimiento = aDia(fechaVencimiento);
+    }
+
+    /**
+     * @return Días desde la época de la fecha de creación, o SIN_FECHA
+     */
+    public int getDiaCreacion() {
+        return diaCreacion;
+    }
+
+    /**
+     * @return Días desde la época de la fecha de vencimiento, o SIN_FECHA
+     */
+    public int getDiaVencimiento() {
+        return diaVencimiento;
+    }
+
+    private static int aDia(LocalDate fecha) {
+        // Lanza ArithmeticException para fechas a millones de años, que no caben en un int
+        return fecha != null ? Math.toIntExact(fecha.toEpochDay()) : SIN_FECHA;
+    }
+
+    /**
+     * Comprueba que el texto es un UUID en la forma exacta de UUID.toString
+     * (minúsculas y grupos completos), para que getId devuelva el mismo texto
+     */
+    private static boolean esUUIDCanonico(String id) {
+        if (id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hexadecimal(String texto, int inicio, int fin) {
+        long valor = 0;
+        for (int i = inicio; i < fin; i++) {
+            valor = valor << 4 | Character.digit(texto.charAt(i), 16);
+        }
+        return valor;
     }
 
     @Override
     public String toString() {
         return "Tarea{" +
-                "id='" + id + '\'' +
+                "id='" + getId() + '\'' +
                 ", titulo='" + titulo + '\'' +
-                ", estado='" + estado + '\'' +
-                ", prioridad='" + prioridad + '\'' +
-                ", fechaVencimiento=" + fechaVencimiento +
+                ", estado='" + getEstado() + '\'' +
+                ", prioridad='" + getPrioridad() + '\'' +
+                ", fechaVencimiento=" + getFechaVencimiento() +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,319 @@
+package com.gestiontareas.ui;
+
+import com.gestiontareas.componentes.gestion.FiltroTareas;
+import com.gestiontareas.componentes.gestion.GestorTareasAsync;
+import com.gestiontareas.modelo.Tarea;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Modelo virtual de la tabla de tareas.
+ * Solo conoce el número total de filas; las tareas se piden al servidor por
+ * páginas cuando la tabla las pinta, y se conserva en memoria un número
+ * acotado de páginas (las usadas más recientemente). Cada página cargada
+ * genera un único evento de cambio, y un índice de ID a fila permite
+ * localizar en tiempo constante cualquier tarea de las páginas cargadas.
+ * El filtrado y la ordenación se resuelven en el servidor, de modo que cada
+ * página llega ya filtrada y en su orden; con texto de búsqueda y sin otra
+ * ordenación, las filas aparecen por relevancia.
+ *
+ * Como mucho hay unas pocas páginas pedidas a la vez; el resto espera y se
+ * pide primero la más reciente. Al desplazarse, las páginas que dejan de
+ * verse se cancelan si aún no se han pedido al servidor, y las que lleguen
+ * tarde se descartan para no expulsar de memoria a las visibles.
+ */
+public class ModeloTablaTareas extends AbstractTableModel {
+    
+    // Las columnas siguen el mismo orden que FiltroTareas.CampoOrden
+    private static final String[] COLUMNAS = {"ID", "Título", "Estado", "Prioridad", "Fecha Vencimiento"};
+    private static final int TAMANO_PAGINA = 200;
+    private static final int MAXIMO_PAGINAS = 10;
+    private static final int MAXIMO_PETICIONES = 3;
+    private static final String CARGANDO = "Cargando...";
+    
+    private final GestorTareasAsync gestorAsync;
+    private final Executor hiloEventos = SwingUtilities::invokeLater;
+    
+    private FiltroTareas filtro = new FiltroTareas();
+    private int filas;
+    private int generacion;
+    private CompletableFuture<Integer> recuentoEnCurso;
+    private final Map<Integer, CompletableFuture<List<Tarea>>> peticionesEnCurso = new HashMap<>();
+    private final Deque<Integer> paginasEnEspera = new ArrayDeque<>();
+    // Filas que muestra la tabla; hasta que se conocen, todas cuentan como visibles
+    private int primeraFilaVisible = 0;
+    private int ultimaFilaVisible = Integer.MAX_VALUE;
+    private final Map<String, Integer> filasPorId = new HashMap<>();
+    private final Map<Integer, List<Tarea>> paginas;
+    
+    /**
+     * Constructor del modelo
+     * @param gestorAsync Fachada asíncrona con la que se piden las páginas
+     */
+    public ModeloTablaTareas(GestorTareasAsync gestorAsync) {
+        this.gestorAsync = gestorAsync;
+        // Orden de acceso: al superar el máximo se descarta la página usada hace más tiempo
+        this.paginas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Tarea>> mayor) {
+                if (size() > MAXIMO_PAGINAS) {
+                    for (Tarea tarea : mayor.getValue()) {
+                        filasPorId.remove(tarea.getId());
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Descarta las páginas cargadas y vuelve a contar las tareas del servidor.
+     * Las páginas o recuentos que lleguen de una recarga anterior se ignoran.
+     * @return Futuro con el número de tareas (-1 si hubo error); se cancela si
+     *         otra recarga lo deja obsoleto
+     */
+    public CompletableFuture<Integer> recargar() {
+        if (recuentoEnCurso != null) {
+            recuentoEnCurso.cancel(false);
+        }
+        
+        int actual = ++generacion;
+        paginas.clear();
+        for (CompletableFuture<List<Tarea>> peticion : peticionesEnCurso.values()) {
+            peticion.cancel(false);
+        }
+        peticionesEnCurso.clear();
+        paginasEnEspera.clear();
+        filasPorId.clear();
+        
+        CompletableFuture<Integer> recuento = gestorAsync.contarTareas(filtro);
+        recuentoEnCurso = recuento;
+        
+        return recuento.thenApplyAsync(total -> {
+            if (actual != generacion) {
+                throw new CancellationException("Recarga obsoleta");
+            }
+            recuentoEnCurso = null;
+            filas = Math.max(total, 0);
+            fireTableDataChanged();
+            return total;
+        }, hiloEventos);
+    }
+    
+    /**
+     * Establece el filtro de la tabla; se aplica en la siguiente recarga.
+     * Se guarda una copia para que las peticiones en curso no vean cambios.
+     * @param filtro Criterios de filtrado (se conserva la ordenación actual)
+     */
+    public void setFiltro(FiltroTareas filtro) {
+        FiltroTareas nuevo = filtro.copia();
+        nuevo.setOrdenarPor(this.filtro.getOrdenarPor());
+        nuevo.setDescendente(this.filtro.isDescendente());
+        this.filtro = nuevo;
+    }
+    
+    /**
+     * Ordena por la columna indicada; si ya se ordenaba por ella invierte el
+     * sentido. Se aplica en la siguiente recarga.
+     * @param columna Índice de la columna en el modelo
+     */
+    public void ordenarPorColumna(int columna) {
+        FiltroTareas.CampoOrden campo = FiltroTareas.CampoOrden.values()[columna];
+        FiltroTareas nuevo = filtro.copia();
+        
+        if (campo == filtro.getOrdenarPor()) {
+            nuevo.setDescendente(!filtro.isDescendente());
+        } else {
+            nuevo.setOrdenarPor(campo);
+            nuevo.setDescendente(false);
+        }
+        filtro = nuevo;
+    }
+    
+    /**
+     * Obtiene la tarea mostrada en una fila
+     * @param fila Índice de la fila en el modelo
+     * @return Tarea de esa fila, o null si su página aún no se ha cargado
+     */
+    public Tarea getTarea(int fila) {
+        List<Tarea> pagina = paginas.get(fila / TAMANO_PAGINA);
+        int posicion = fila % TAMANO_PAGINA;
+        return pagina != null && posicion < pagina.size() ? pagina.get(posicion) : null;
+    }
+    
+    /**
+     * Obtiene la fila en la que se muestra una tarea
+     * @param id ID de la tarea
+     * @return Índice de la fila o -1 si no está en ninguna página cargada
+     */
+    public int getFila(String id) {
+        Integer fila = filasPorId.get(id);
+        return fila != null ? fila : -1;
+    }
+    
+    /**
+     * Sustituye una tarea ya cargada, por ejemplo tras completar sus datos
+     * @param tarea Tarea con los datos nuevos
+     */
+    public void reemplazarTarea(Tarea tarea) {
+        int fila = getFila(tarea.getId());
+        List<Tarea> pagina = fila >= 0 ? paginas.get(fila / TAMANO_PAGINA) : null;
+        if (pagina != null) {
+            pagina.set(fila % TAMANO_PAGINA, tarea);
+            fireTableRowsUpdated(fila, fila);
+        }
+    }
+    
+    /**
+     * Indica qué filas muestra la tabla. Las páginas que quedan fuera dejan
+     * de esperar turno, y las ya pedidas se cancelan (si el servidor aún no
+     * ha empezado con ellas) o se descartan al llegar.
+     * @param primera Primera fila visible del modelo
+     * @param ultima Última fila visible del modelo
+     */
+    public void setFilasVisibles(int primera, int ultima) {
+        primeraFilaVisible = primera;
+        ultimaFilaVisible = ultima;
+        
+        paginasEnEspera.removeIf(numero -> !esVisible(numero));
+        peticionesEnCurso.entrySet().removeIf(entrada -> {
+            if (esVisible(entrada.getKey())) {
+                return false;
+            }
+            entrada.getValue().cancel(false);
+            return true;
+        });
+        despacharPaginas();
+    }
+    
+    /**
+     * Indica si alguna fila de la página está entre las visibles
+     */
+    private boolean esVisible(int numero) {
+        long inicio = (long) numero * TAMANO_PAGINA;
+        return inicio <= ultimaFilaVisible && inicio + TAMANO_PAGINA - 1 >= primeraFilaVisible;
+    }
+    
+    /**
+     * Deja una página a la espera de pedirse, si no está pedida ya
+     * @param numero Número de página
+     */
+    private void solicitarPagina(int numero) {
+        if (peticionesEnCurso.containsKey(numero) || paginasEnEspera.contains(numero)) {
+            return;
+        }
+        paginasEnEspera.addFirst(numero);
+        despacharPaginas();
+    }
+    
+    /**
+     * Pide al servidor páginas en espera, empezando por la última solicitada,
+     * mientras haya sitio para más peticiones simultáneas
+     */
+    private void despacharPaginas() {
+        while (peticionesEnCurso.size() < MAXIMO_PETICIONES && !paginasEnEspera.isEmpty()) {
+            int numero = paginasEnEspera.removeFirst();
+            if (!paginas.containsKey(numero)) {
+                pedirPagina(numero);
+            }
+        }
+    }
+    
+    private void pedirPagina(int numero) {
+        int actual = generacion;
+        int inicio = numero * TAMANO_PAGINA;
+        
+        CompletableFuture<List<Tarea>> peticion = gestorAsync.obtenerPaginaListado(filtro, inicio, TAMANO_PAGINA);
+        peticionesEnCurso.put(numero, peticion);
+        peticion.whenCompleteAsync((tareas, error) -> {
+            if (actual != generacion) {
+                return;
+            }
+            // Si ha fallado, la página se vuelve a pedir la próxima vez que se pinte
+            peticionesEnCurso.remove(numero, peticion);
+            if (error == null && esVisible(numero)) {
+                guardarPagina(numero, tareas);
+            }
+            despacharPaginas();
+        }, hiloEventos);
+    }
+    
+    private void guardarPagina(int numero, List<Tarea> tareas) {
+        int inicio = numero * TAMANO_PAGINA;
+        paginas.put(numero, new ArrayList<>(tareas));
+        for (int i = 0; i < tareas.size(); i++) {
+            filasPorId.put(tareas.get(i).getId(), inicio + i);
+        }
+        
+        int fin = Math.min(inicio + TAMANO_PAGINA, filas) - 1;
+        if (fin >= inicio) {
+            fireTableRowsUpdated(inicio, fin);
+        }
+    }
+    
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return COLUMNAS.length;
+    }
+    
+    @Override
+    public String getColumnName(int columna) {
+        if (filtro.getOrdenarPor() != null && filtro.getOrdenarPor().ordinal() == columna) {
+            return COLUMNAS[columna] + (filtro.isDescendente() ? " ▼" : " ▲");
+        }
+        return COLUMNAS[columna];
+    }
+    
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        int numero = fila / TAMANO_PAGINA;
+        if (!paginas.containsKey(numero)) {
+            solicitarPagina(numero);
+            return columna == 1 ? CARGANDO : "";
+        }
+        
+        // Página cargada pero más corta de lo esperado (tareas borradas entre medias)
+        Tarea tarea = getTarea(fila);
+        if (tarea == null) {
+            return "";
+        }
+        
+        switch (columna) {
+            case 0:
+                String id = tarea.getId();
+                return id.substring(0, Math.min(8, id.length())) + "...";
+            case 1:
+                return tarea.getTitulo();
+            case 2:
+                return tarea.getEstado();
+            case 3:
+                return tarea.getPrioridad();
+            case 4:
+                return tarea.getFechaVencimiento() != null ? tarea.getFechaVencimiento().toString() : "N/A";
+            default:
+                return null;
+        }
+    }
+    
+    @Override
+    public boolean isCellEditable(int fila, int columna) {
+        return false;
+    }
+}
@@ -1,27 +1,49 @@
 package com.gestiontareas.ui;
 
 import com.gestiontareas.componentes.bd.ConectorBD;
+import com.gestiontareas.componentes.gestion.FiltroTareas;
 import com.gestiontareas.componentes.gestion.GestorTareas;
+import com.gestiontareas.componentes.gestion.GestorTareasAsync;
+import com.gestiontareas.componentes.gestion.ResumenTareas;
+import com.gestiontareas.componentes.vencimientos.AvisoVencimiento;
+import com.gestiontareas.componentes.vencimientos.PlanificadorVencimientos;
 import com.gestiontareas.modelo.Tarea;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.TableModelEvent;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Ventana principal de la aplicación de gestión de tareas
  */
 public class VentanaPrincipal extends JFrame {
     
+    private static final int RETARDO_BUSQUEDA_MS = 300;
+    private static final int AVISOS_RECIENTES = 10;
+    
     private ConectorBD conectorBD;
     private GestorTareas gestorTareas;
+    private GestorTareasAsync gestorAsync;
+    private PlanificadorVencimientos planificadorVencimientos;
+    
+    // Ejecuta las continuaciones de los futuros en el hilo de eventos de Swing
+    private final Executor hiloEventos = SwingUtilities::invokeLater;
+    private int operacionesPendientes;
     
     // Componentes de la interfaz
     private JTable tablaTareas;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaTareas modeloTabla;
     private JTextField txtTitulo;
     private JTextArea txtDescripcion;
     private JComboBox<String> cmbEstado;
@@ -32,8 +54,26 @@ public class VentanaPrincipal extends JFrame {
     private JButton btnEliminar;
     private JButton btnRefrescar;
     private JLabel lblEstadoConexion;
+    private JProgressBar barraCarga;
+    private JLabel lblResumen;
+    private boolean resumenEnCurso = false;
+    private boolean resumenPendiente = false;
+    private JLabel lblVencimientos;
+    private final Deque<AvisoVencimiento> avisosRecientes = new ArrayDeque<>();
+    
+    // Controles de filtrado
+    private JTextField txtBuscar;
+    private Timer temporizadorBusqueda;
+    private JComboBox<String> cmbFiltroEstado;
+    private JComboBox<String> cmbFiltroPrioridad;
+    private JTextField txtVenceDesde;
+    private JTextField txtVenceHasta;
+    private JButton btnFiltrar;
+    private JButton btnLimpiarFiltro;
     
     private String tareaSeleccionadaId = null;
+    // Fila seleccionada cuya página aún no ha llegado (-1 si no hay ninguna)
+    private int filaPendienteFormulario = -1;
     
     /**
      * Constructor de la ventana
@@ -43,10 +83,18 @@ public class VentanaPrincipal extends JFrame {
     public VentanaPrincipal(ConectorBD conectorBD, GestorTareas gestorTareas) {
         this.conectorBD = conectorBD;
         this.gestorTareas = gestorTareas;
+        this.gestorAsync = new GestorTareasAsync(gestorTareas, conectorBD.getTamanoPool());
+        this.planificadorVencimientos = new PlanificadorVencimientos(gestorTareas);
         
         inicializarComponentes();
         configurarEventos();
         cargarTareas();
+        actualizarResumen();
+        
+        // Los avisos llegan en el hilo del planificador
+        planificadorVencimientos.agregarOyente(aviso ->
+            SwingUtilities.invokeLater(() -> mostrarAviso(aviso)));
+        planificadorVencimientos.iniciar();
     }
     
     /**
@@ -66,19 +114,28 @@ public class VentanaPrincipal extends JFrame {
         lblEstadoConexion.setForeground(Color.WHITE);
         lblEstadoConexion.setFont(new Font("Arial", Font.BOLD, 14));
         panelSuperior.add(lblEstadoConexion);
+        barraCarga = new JProgressBar();
+        barraCarga.setIndeterminate(true);
+        barraCarga.setPreferredSize(new Dimension(120, 14));
+        barraCarga.setVisible(false);
+        panelSuperior.add(barraCarga);
+        lblResumen = new JLabel();
+        lblResumen.setForeground(Color.WHITE);
+        lblResumen.setBorder(BorderFactory.createEmptyBorder(0, 20, 0, 0));
+        panelSuperior.add(lblResumen);
+        lblVencimientos = new JLabel();
+        lblVencimientos.setForeground(new Color(255, 235, 59));
+        lblVencimientos.setFont(new Font("Arial", Font.BOLD, 12));
+        lblVencimientos.setBorder(BorderFactory.createEmptyBorder(0, 20, 0, 0));
+        lblVencimientos.setVisible(false);
+        panelSuperior.add(lblVencimientos);
         add(panelSuperior, BorderLayout.NORTH);
         
         // Panel central - Tabla de tareas
         JPanel panelCentral = new JPanel(new BorderLayout());
         panelCentral.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
-        String[] columnas = {"ID", "Título", "Estado", "Prioridad", "Fecha Vencimiento"};
-        modeloTabla = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloTabla = new ModeloTablaTareas(gestorAsync);
         
         tablaTareas = new JTable(modeloTabla);
         tablaTareas.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -87,8 +144,36 @@ public class VentanaPrincipal extends JFrame {
         
         JScrollPane scrollTabla = new JScrollPane(tablaTareas);
         scrollTabla.setBorder(BorderFactory.createTitledBorder("Lista de Tareas"));
+        // El modelo solo conserva y pide las páginas de las filas que se ven
+        scrollTabla.getViewport().addChangeListener(e -> actualizarFilasVisibles());
         panelCentral.add(scrollTabla, BorderLayout.CENTER);
         
+        // Filtros sobre la tabla (se resuelven en el servidor)
+        JPanel panelFiltros = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        panelFiltros.add(new JLabel("Buscar:"));
+        txtBuscar = new JTextField(12);
+        txtBuscar.setToolTipText("Busca en título y descripción");
+        panelFiltros.add(txtBuscar);
+        panelFiltros.add(new JLabel("Estado:"));
+        cmbFiltroEstado = new JComboBox<>(new String[]{"Todos", "pendiente", "en_proceso", "completada"});
+        panelFiltros.add(cmbFiltroEstado);
+        panelFiltros.add(new JLabel("Prioridad:"));
+        cmbFiltroPrioridad = new JComboBox<>(new String[]{"Todas", "baja", "media", "alta"});
+        panelFiltros.add(cmbFiltroPrioridad);
+        panelFiltros.add(new JLabel("Vence desde:"));
+        txtVenceDesde = new JTextField(8);
+        panelFiltros.add(txtVenceDesde);
+        panelFiltros.add(new JLabel("hasta:"));
+        txtVenceHasta = new JTextField(8);
+        panelFiltros.add(txtVenceHasta);
+        btnFiltrar = new JButton("Filtrar");
+        btnFiltrar.setFocusPainted(false);
+        panelFiltros.add(btnFiltrar);
+        btnLimpiarFiltro = new JButton("Limpiar");
+        btnLimpiarFiltro.setFocusPainted(false);
+        panelFiltros.add(btnLimpiarFiltro);
+        panelCentral.add(panelFiltros, BorderLayout.NORTH);
+        
         add(panelCentral, BorderLayout.CENTER);
         
         // Panel derecho - Formulario
@@ -205,9 +290,9 @@ public class VentanaPrincipal extends JFrame {
             if (!e.getValueIsAdjusting()) {
                 int filaSeleccionada = tablaTareas.getSelectedRow();
                 if (filaSeleccionada >= 0) {
-                    cargarTareaEnFormulario(filaSeleccionada);
                     btnActualizar.setEnabled(true);
                     btnEliminar.setEnabled(true);
+                    cargarTareaEnFormulario(filaSeleccionada);
                 } else {
                     limpiarFormulario();
                     btnActualizar.setEnabled(false);
@@ -216,6 +301,18 @@ public class VentanaPrincipal extends JFrame {
             }
         });
         
+        // Si la fila seleccionada estaba sin cargar, se rellena el formulario al llegar su página
+        modeloTabla.addTableModelListener(e -> {
+            int fila = filaPendienteFormulario;
+            if (fila >= 0 && e.getType() == TableModelEvent.UPDATE &&
+                    e.getFirstRow() <= fila && fila <= e.getLastRow()) {
+                int seleccionada = tablaTareas.getSelectedRow();
+                if (seleccionada >= 0 && tablaTareas.convertRowIndexToModel(seleccionada) == fila) {
+                    cargarTareaEnFormulario(seleccionada);
+                }
+            }
+        });
+        
         // Botón Crear
         btnCrear.addActionListener(e -> crearTarea());
         
@@ -226,50 +323,296 @@ public class VentanaPrincipal extends JFrame {
         btnEliminar.addActionListener(e -> eliminarTarea());
         
         // Botón Refrescar
-        btnRefrescar.addActionListener(e -> cargarTareas());
+        btnRefrescar.addActionListener(e -> {
+            cargarTareas();
+            actualizarResumen();
+        });
+        
+        // Filtros
+        btnFiltrar.addActionListener(e -> aplicarFiltro());
+        btnLimpiarFiltro.addActionListener(e -> {
+            txtBuscar.setText("");
+            temporizadorBusqueda.stop();
+            cmbFiltroEstado.setSelectedIndex(0);
+            cmbFiltroPrioridad.setSelectedIndex(0);
+            txtVenceDesde.setText("");
+            txtVenceHasta.setText("");
+            aplicarFiltro();
+        });
+        
+        // Búsqueda mientras se escribe: se espera a que el usuario haga una
+        // pausa para no lanzar una consulta por cada tecla
+        temporizadorBusqueda = new Timer(RETARDO_BUSQUEDA_MS, e -> aplicarFiltro());
+        temporizadorBusqueda.setRepeats(false);
+        txtBuscar.addActionListener(e -> {
+            temporizadorBusqueda.stop();
+            aplicarFiltro();
+        });
+        txtBuscar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                temporizadorBusqueda.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                temporizadorBusqueda.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                temporizadorBusqueda.restart();
+            }
+        });
+        
+        // Click en la cabecera: ordenar por esa columna en el servidor
+        tablaTareas.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int columna = tablaTareas.columnAtPoint(e.getPoint());
+                if (columna >= 0) {
+                    modeloTabla.ordenarPorColumna(tablaTareas.convertColumnIndexToModel(columna));
+                    actualizarCabeceras();
+                    limpiarFormulario();
+                    cargarTareas();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Lee los controles de filtrado y recarga la tabla con ellos
+     */
+    private void aplicarFiltro() {
+        FiltroTareas filtro = new FiltroTareas();
+        
+        filtro.setTexto(txtBuscar.getText());
+        if (cmbFiltroEstado.getSelectedIndex() > 0) {
+            filtro.setEstado((String) cmbFiltroEstado.getSelectedItem());
+        }
+        if (cmbFiltroPrioridad.getSelectedIndex() > 0) {
+            filtro.setPrioridad((String) cmbFiltroPrioridad.getSelectedItem());
+        }
+        
+        try {
+            if (!txtVenceDesde.getText().trim().isEmpty()) {
+                filtro.setVencimientoDesde(LocalDate.parse(txtVenceDesde.getText().trim()));
+            }
+            if (!txtVenceHasta.getText().trim().isEmpty()) {
+                filtro.setVencimientoHasta(LocalDate.parse(txtVenceHasta.getText().trim()));
+            }
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, 
+                "Formato de fecha inválido. Use YYYY-MM-DD", 
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        modeloTabla.setFiltro(filtro);
+        limpiarFormulario();
+        cargarTareas();
     }
     
     /**
-     * Carga todas las tareas en la tabla
+     * Actualiza el texto de las cabeceras para reflejar la ordenación actual
+     */
+    private void actualizarCabeceras() {
+        for (int i = 0; i < tablaTareas.getColumnCount(); i++) {
+            int columna = tablaTareas.convertColumnIndexToModel(i);
+            tablaTareas.getColumnModel().getColumn(i).setHeaderValue(modeloTabla.getColumnName(columna));
+        }
+        tablaTareas.getTableHeader().repaint();
+    }
+    
+    /**
+     * Comunica al modelo el rango de filas que muestra la tabla
+     */
+    private void actualizarFilasVisibles() {
+        Rectangle visible = tablaTareas.getVisibleRect();
+        int primera = tablaTareas.rowAtPoint(visible.getLocation());
+        int ultima = tablaTareas.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        if (primera < 0) {
+            primera = 0;
+        }
+        if (ultima < 0) {
+            ultima = tablaTareas.getRowCount() - 1;
+        }
+        modeloTabla.setFilasVisibles(primera, ultima);
+    }
+    
+    /**
+     * Recarga la tabla sin bloquear la interfaz. Solo se cuenta el total de
+     * tareas; las filas se piden por páginas a medida que se muestran.
      */
     private void cargarTareas() {
-        modeloTabla.setRowCount(0);
-        List<Tarea> tareas = gestorTareas.obtenerTodasLasTareas();
-        
-        for (Tarea tarea : tareas) {
-            Object[] fila = {
-                tarea.getId().substring(0, 8) + "...",
-                tarea.getTitulo(),
-                tarea.getEstado(),
-                tarea.getPrioridad(),
-                tarea.getFechaVencimiento() != null ? tarea.getFechaVencimiento().toString() : "N/A"
-            };
-            modeloTabla.addRow(fila);
+        iniciarOperacion("Cargando tareas...");
+        
+        modeloTabla.recargar().whenCompleteAsync((total, error) -> {
+            finalizarOperacion();
+            Throwable causa = error instanceof CompletionException ? error.getCause() : error;
+            if (causa instanceof CancellationException) {
+                // Una recarga posterior ya ha tomado el relevo
+                return;
+            }
+            if (causa == null && total >= 0) {
+                lblEstadoConexion.setText("● Conectado - " + total + " tareas");
+            } else {
+                lblEstadoConexion.setText("● Error al cargar tareas");
+            }
+        }, hiloEventos);
+    }
+    
+    /**
+     * Pide al servidor el resumen agregado de las tareas y lo muestra en la
+     * barra superior. Si ya hay una petición en curso no se lanza otra: se
+     * repite una sola vez al terminar, con lo que varios cambios seguidos
+     * cuestan como mucho dos consultas.
+     */
+    private void actualizarResumen() {
+        mostrarVencimientos();
+        if (resumenEnCurso) {
+            resumenPendiente = true;
+            return;
         }
+        resumenEnCurso = true;
         
-        lblEstadoConexion.setText("● Conectado - " + tareas.size() + " tareas cargadas");
+        gestorAsync.obtenerResumen().whenCompleteAsync((resumen, error) -> {
+            resumenEnCurso = false;
+            if (error == null && resumen != null) {
+                mostrarResumen(resumen);
+            }
+            if (resumenPendiente) {
+                resumenPendiente = false;
+                actualizarResumen();
+            }
+        }, hiloEventos);
+    }
+    
+    /**
+     * Muestra un resumen en la barra superior
+     */
+    private void mostrarResumen(ResumenTareas resumen) {
+        lblResumen.setText(String.format(
+            "Pendientes: %d  |  En proceso: %d  |  Completadas: %d  |  " +
+            "Alta prioridad: %d  |  Vencidas: %d  |  Vencen esta semana: %d",
+            resumen.getTareasConEstado("pendiente"),
+            resumen.getTareasConEstado("en_proceso"),
+            resumen.getTareasConEstado("completada"),
+            resumen.getTareasConPrioridad("alta"),
+            resumen.getVencidas(),
+            resumen.getVencenSemana()));
+        lblResumen.setToolTipText("Por estado: " + resumen.getPorEstado() +
+            " - Por prioridad: " + resumen.getPorPrioridad());
+    }
+    
+    /**
+     * Muestra un aviso del planificador de vencimientos: el último aviso
+     * queda como texto de la barra superior y los recientes en su tooltip
+     */
+    private void mostrarAviso(AvisoVencimiento aviso) {
+        avisosRecientes.addFirst(aviso);
+        if (avisosRecientes.size() > AVISOS_RECIENTES) {
+            avisosRecientes.removeLast();
+        }
+        
+        StringBuilder tooltip = new StringBuilder("<html>");
+        for (AvisoVencimiento reciente : avisosRecientes) {
+            // El título lo escribe el usuario: no debe interpretarse como HTML
+            tooltip.append(reciente.toString().replace("&", "&amp;").replace("<", "&lt;"))
+                   .append("<br>");
+        }
+        lblVencimientos.setToolTipText(tooltip.append("</html>").toString());
+        mostrarVencimientos();
+        lblVencimientos.setText(lblVencimientos.getText() + "  -  " + aviso);
+    }
+    
+    /**
+     * Muestra en la barra superior los contadores del planificador de vencimientos
+     */
+    private void mostrarVencimientos() {
+        int vencidas = planificadorVencimientos.getVencidas();
+        int vencenHoy = planificadorVencimientos.getVencenHoy();
+        lblVencimientos.setVisible(vencidas > 0 || vencenHoy > 0);
+        lblVencimientos.setText(String.format("⚠ Vencidas: %d  |  Vencen hoy: %d", vencidas, vencenHoy));
     }
     
     /**
-     * Carga los datos de una tarea en el formulario
+     * Carga los datos de una tarea en el formulario. La tarea se toma del
+     * modelo de la tabla; solo se consulta la base de datos si al listado le
+     * faltan campos (la descripción no viaja en la carga de la tabla).
      */
     private void cargarTareaEnFormulario(int fila) {
-        String idCorto = (String) modeloTabla.getValueAt(fila, 0);
-        String titulo = (String) modeloTabla.getValueAt(fila, 1);
-        
-        // Buscar la tarea completa
-        List<Tarea> todasLasTareas = gestorTareas.obtenerTodasLasTareas();
-        for (Tarea tarea : todasLasTareas) {
-            if (tarea.getTitulo().equals(titulo)) {
-                tareaSeleccionadaId = tarea.getId();
-                txtTitulo.setText(tarea.getTitulo());
-                txtDescripcion.setText(tarea.getDescripcion());
-                cmbEstado.setSelectedItem(tarea.getEstado());
-                cmbPrioridad.setSelectedItem(tarea.getPrioridad());
-                txtFechaVencimiento.setText(tarea.getFechaVencimiento() != null ? 
-                    tarea.getFechaVencimiento().toString() : "");
-                break;
-            }
+        int filaModelo = tablaTareas.convertRowIndexToModel(fila);
+        Tarea tarea = modeloTabla.getTarea(filaModelo);
+        if (tarea == null) {
+            // La página de esa fila aún no ha llegado del servidor; el
+            // formulario se rellena cuando el modelo la notifique
+            filaPendienteFormulario = filaModelo;
+            tareaSeleccionadaId = null;
+            txtTitulo.setText("");
+            txtDescripcion.setText("");
+            btnActualizar.setEnabled(false);
+            btnEliminar.setEnabled(false);
+            return;
+        }
+        filaPendienteFormulario = -1;
+        btnActualizar.setEnabled(true);
+        btnEliminar.setEnabled(true);
+        mostrarEnFormulario(tarea);
+        
+        if (tarea.getDescripcion() == null) {
+            // Sin la descripción no se puede actualizar: se sobrescribiría con vacío
+            btnActualizar.setEnabled(false);
+            String id = tarea.getId();
+            iniciarOperacion("Cargando tarea...");
+            gestorAsync.buscarTareaPorId(id).whenCompleteAsync((completa, error) -> {
+                finalizarOperacion();
+                if (error != null || completa == null) {
+                    return;
+                }
+                modeloTabla.reemplazarTarea(completa);
+                // Solo se rellena si la selección no ha cambiado mientras tanto
+                if (id.equals(tareaSeleccionadaId)) {
+                    mostrarEnFormulario(completa);
+                    btnActualizar.setEnabled(true);
+                }
+            }, hiloEventos);
+        }
+    }
+    
+    /**
+     * Muestra los datos de una tarea en el formulario
+     */
+    private void mostrarEnFormulario(Tarea tarea) {
+        tareaSeleccionadaId = tarea.getId();
+        txtTitulo.setText(tarea.getTitulo());
+        txtDescripcion.setText(tarea.getDescripcion() != null ? tarea.getDescripcion() : "");
+        cmbEstado.setSelectedItem(tarea.getEstado());
+        cmbPrioridad.setSelectedItem(tarea.getPrioridad());
+        txtFechaVencimiento.setText(tarea.getFechaVencimiento() != null ? 
+            tarea.getFechaVencimiento().toString() : "");
+    }
+    
+    /**
+     * Marca el inicio de una operación en segundo plano y muestra el indicador de carga
+     * @param mensaje Texto a mostrar mientras dura la operación
+     */
+    private void iniciarOperacion(String mensaje) {
+        operacionesPendientes++;
+        lblEstadoConexion.setText("● " + mensaje);
+        barraCarga.setVisible(true);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+    }
+    
+    /**
+     * Marca el final de una operación y oculta el indicador si no quedan más
+     */
+    private void finalizarOperacion() {
+        operacionesPendientes--;
+        if (operacionesPendientes <= 0) {
+            operacionesPendientes = 0;
+            barraCarga.setVisible(false);
+            setCursor(Cursor.getDefaultCursor());
         }
     }
     
@@ -297,15 +640,22 @@ public class VentanaPrincipal extends JFrame {
             return;
         }
         
-        if (gestorTareas.crearTarea(nuevaTarea)) {
-            JOptionPane.showMessageDialog(this, "Tarea creada exitosamente");
-            limpiarFormulario();
-            cargarTareas();
-        } else {
-            JOptionPane.showMessageDialog(this, 
-                "Error al crear la tarea", 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        btnCrear.setEnabled(false);
+        iniciarOperacion("Creando tarea...");
+        gestorAsync.crearTarea(nuevaTarea).whenCompleteAsync((creada, error) -> {
+            finalizarOperacion();
+            btnCrear.setEnabled(true);
+            if (error == null && creada) {
+                JOptionPane.showMessageDialog(this, "Tarea creada exitosamente");
+                limpiarFormulario();
+                cargarTareas();
+                actualizarResumen();
+            } else {
+                JOptionPane.showMessageDialog(this, 
+                    "Error al crear la tarea", 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }, hiloEventos);
     }
     
     /**
@@ -338,15 +688,22 @@ public class VentanaPrincipal extends JFrame {
             return;
         }
         
-        if (gestorTareas.actualizarTarea(tareaActualizada)) {
-            JOptionPane.showMessageDialog(this, "Tarea actualizada exitosamente");
-            limpiarFormulario();
-            cargarTareas();
-        } else {
-            JOptionPane.showMessageDialog(this, 
-                "Error al actualizar la tarea", 
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        btnActualizar.setEnabled(false);
+        iniciarOperacion("Actualizando tarea...");
+        gestorAsync.actualizarTarea(tareaActualizada).whenCompleteAsync((actualizada, error) -> {
+            finalizarOperacion();
+            if (error == null && actualizada) {
+                JOptionPane.showMessageDialog(this, "Tarea actualizada exitosamente");
+                limpiarFormulario();
+                cargarTareas();
+                actualizarResumen();
+            } else {
+                btnActualizar.setEnabled(tareaSeleccionadaId != null);
+                JOptionPane.showMessageDialog(this, 
+                    "Error al actualizar la tarea", 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }, hiloEventos);
     }
     
     /**
@@ -364,15 +721,22 @@ public class VentanaPrincipal extends JFrame {
             JOptionPane.YES_NO_OPTION);
         
         if (confirmacion == JOptionPane.YES_OPTION) {
-            if (gestorTareas.eliminarTarea(tareaSeleccionadaId)) {
-                JOptionPane.showMessageDialog(this, "Tarea eliminada exitosamente");
-                limpiarFormulario();
-                cargarTareas();
-            } else {
-                JOptionPane.showMessageDialog(this, 
-                    "Error al eliminar la tarea", 
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            btnEliminar.setEnabled(false);
+            iniciarOperacion("Eliminando tarea...");
+            gestorAsync.eliminarTarea(tareaSeleccionadaId).whenCompleteAsync((eliminada, error) -> {
+                finalizarOperacion();
+                if (error == null && eliminada) {
+                    JOptionPane.showMessageDialog(this, "Tarea eliminada exitosamente");
+                    limpiarFormulario();
+                    cargarTareas();
+                    actualizarResumen();
+                } else {
+                    btnEliminar.setEnabled(tareaSeleccionadaId != null);
+                    JOptionPane.showMessageDialog(this, 
+                        "Error al eliminar la tarea", 
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }, hiloEventos);
         }
     }
     
@@ -403,6 +767,7 @@ public class VentanaPrincipal extends JFrame {
         cmbPrioridad.setSelectedIndex(0);
         txtFechaVencimiento.setText(LocalDate.now().plusDays(7).toString());
         tareaSeleccionadaId = null;
+        filaPendienteFormulario = -1;
         tablaTareas.clearSelection();
         btnActualizar.setEnabled(false);
         btnEliminar.setEnabled(false);